@@ -1,5 +1,18 @@
 package org.example.apigateway.filter;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.MalformedJwtException;
+import org.example.apigateway.security.PublicKeyProvider;
+import org.example.apigateway.security.UnknownSigningKeyException;
+import org.example.apigateway.security.ValidatedToken;
+import org.example.apigateway.security.ValidatedTokenCache;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
@@ -8,16 +21,43 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
+import java.security.Key;
+import java.security.PublicKey;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Optional;
 
 @Component
 public class JwtValidationGatewayFilterFactory extends AbstractGatewayFilterFactory<Object> {
+    private static final String USER_ID = "user_id";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
     private final WebClient webClient;
+    private final PublicKeyProvider publicKeyProvider;
+    private final ValidatedTokenCache tokenCache;
+    private final JwtParser jwtParser;
 
     public JwtValidationGatewayFilterFactory(WebClient.Builder webClient,
-                                             @Value("${auth.service.url}") String authServiceUrl) {
+                                             @Value("${auth.service.url}") String authServiceUrl,
+                                             PublicKeyProvider publicKeyProvider,
+                                             ValidatedTokenCache tokenCache) {
         this.webClient = webClient.baseUrl(authServiceUrl).build();
+        this.publicKeyProvider = publicKeyProvider;
+        this.tokenCache = tokenCache;
+        this.jwtParser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        PublicKey publicKey = publicKeyProvider.getPublicKey(header.getKeyId());
+                        if (publicKey == null) {
+                            throw new UnknownSigningKeyException(header.getKeyId());
+                        }
+                        return publicKey;
+                    }
+                })
+                .build();
     }
 
     @Override
@@ -30,11 +70,7 @@ public class JwtValidationGatewayFilterFactory extends AbstractGatewayFilterFact
                 return exchange.getResponse().setComplete();
             }
 
-            return webClient.get()
-                    .uri("/auth/validate")
-                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
-                    .retrieve()
-                    .bodyToMono(String.class)
+            return tokenCache.getUserId(token, this::validate)
                     .flatMap(userId -> {
                         ServerHttpRequest mutatedRequest = exchange.getRequest().mutate()
                                 .header("X-User-Id", userId)
@@ -49,10 +85,51 @@ public class JwtValidationGatewayFilterFactory extends AbstractGatewayFilterFact
         };
     }
 
+    private Mono<ValidatedToken> validate(String token) {
+        try {
+            return Mono.just(verifyLocally(token));
+        } catch (UnknownSigningKeyException ex) {
+            // rotated keys get a new kid, so a bad signature under a known kid is rejected here
+            publicKeyProvider.requestRefresh();
+            return validateRemotely(token);
+        } catch (JwtException | IllegalArgumentException ex) {
+            return Mono.error(ex);
+        }
+    }
+
+    private ValidatedToken verifyLocally(String token) {
+        Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+
+        String userId = claims.get(USER_ID, String.class);
+        if (userId == null || userId.isBlank()) {
+            throw new MalformedJwtException("Token does not contain user id");
+        }
+        return new ValidatedToken(userId, claims.getExpiration().toInstant());
+    }
+
+    private Mono<ValidatedToken> validateRemotely(String token) {
+        return webClient.get()
+                .uri("/auth/validate")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .retrieve()
+                .bodyToMono(String.class)
+                .map(userId -> new ValidatedToken(userId, extractExpiration(token)));
+    }
+
+    private Instant extractExpiration(String token) {
+        try {
+            String[] parts = token.split("\\.");
+            JsonNode payload = OBJECT_MAPPER.readTree(Base64.getUrlDecoder().decode(parts[1]));
+            return Instant.ofEpochSecond(payload.path("exp").asLong());
+        } catch (Exception ex) {
+            return Instant.now();
+        }
+    }
+
     private String extractTokenFromHeader(ServerHttpRequest request) {
         return Optional.ofNullable(request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION))
                 .filter(header -> header.startsWith("Bearer "))
                 .map(header -> header.substring(7))
                 .orElse(null);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,119 @@
+package org.example.apigateway.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.math.BigInteger;
+import java.security.AlgorithmParameters;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Component
+public class PublicKeyProvider {
+    private static final Logger log = LoggerFactory.getLogger(PublicKeyProvider.class);
+    private static final Duration MIN_REFRESH_INTERVAL = Duration.ofSeconds(30);
+    private static final byte[] ED25519_X509_PREFIX = HexFormat.of().parseHex("302a300506032b6570032100");
+
+    private final WebClient webClient;
+    private final AtomicReference<Map<String, PublicKey>> publicKeys = new AtomicReference<>(Map.of());
+    private final AtomicReference<Instant> lastRefresh = new AtomicReference<>(Instant.EPOCH);
+
+    public PublicKeyProvider(WebClient.Builder webClient,
+                             @Value("${auth.service.url}") String authServiceUrl) {
+        this.webClient = webClient.baseUrl(authServiceUrl).build();
+    }
+
+    public PublicKey getPublicKey(String keyId) {
+        return keyId == null ? null : publicKeys.get().get(keyId);
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${auth.public-key.refresh-interval}")
+    public void refresh() {
+        lastRefresh.set(Instant.now());
+        fetchPublicKeys().subscribe(
+                keys -> {
+                    publicKeys.set(keys);
+                    log.debug("Loaded {} public keys from auth-service JWKS", keys.size());
+                },
+                ex -> log.warn("Failed to fetch JWKS from auth-service: {}", ex.getMessage())
+        );
+    }
+
+    public void requestRefresh() {
+        Instant last = lastRefresh.get();
+        if (last.plus(MIN_REFRESH_INTERVAL).isBefore(Instant.now()) && lastRefresh.compareAndSet(last, Instant.now())) {
+            refresh();
+        }
+    }
+
+    private Mono<Map<String, PublicKey>> fetchPublicKeys() {
+        return webClient.get()
+                .uri("/.well-known/jwks.json")
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .map(PublicKeyProvider::parseJwks);
+    }
+
+    static Map<String, PublicKey> parseJwks(JsonNode jwks) {
+        Map<String, PublicKey> keys = new HashMap<>();
+        for (JsonNode jwk : jwks.path("keys")) {
+            try {
+                PublicKey publicKey = parseJwk(jwk);
+                if (publicKey != null) {
+                    keys.put(jwk.path("kid").asText(), publicKey);
+                }
+            } catch (Exception ex) {
+                log.warn("Skipping invalid JWK {}: {}", jwk.path("kid").asText(), ex.getMessage());
+            }
+        }
+        return Map.copyOf(keys);
+    }
+
+    private static PublicKey parseJwk(JsonNode jwk) throws Exception {
+        String keyType = jwk.path("kty").asText();
+        String curve = jwk.path("crv").asText();
+
+        if ("RSA".equals(keyType)) {
+            RSAPublicKeySpec spec = new RSAPublicKeySpec(decodeUnsigned(jwk, "n"), decodeUnsigned(jwk, "e"));
+            return KeyFactory.getInstance("RSA").generatePublic(spec);
+        }
+        if ("EC".equals(keyType) && "P-256".equals(curve)) {
+            AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+            parameters.init(new ECGenParameterSpec("secp256r1"));
+            ECPoint point = new ECPoint(decodeUnsigned(jwk, "x"), decodeUnsigned(jwk, "y"));
+            ECPublicKeySpec spec = new ECPublicKeySpec(point, parameters.getParameterSpec(ECParameterSpec.class));
+            return KeyFactory.getInstance("EC").generatePublic(spec);
+        }
+        if ("OKP".equals(keyType) && "Ed25519".equals(curve)) {
+            byte[] x = Base64.getUrlDecoder().decode(jwk.path("x").asText());
+            byte[] encoded = new byte[ED25519_X509_PREFIX.length + x.length];
+            System.arraycopy(ED25519_X509_PREFIX, 0, encoded, 0, ED25519_X509_PREFIX.length);
+            System.arraycopy(x, 0, encoded, ED25519_X509_PREFIX.length, x.length);
+            return KeyFactory.getInstance("Ed25519").generatePublic(new X509EncodedKeySpec(encoded));
+        }
+        return null;
+    }
+
+    private static BigInteger decodeUnsigned(JsonNode jwk, String member) {
+        return new BigInteger(1, Base64.getUrlDecoder().decode(jwk.path(member).asText()));
+    }
+}
@@ -0,0 +1,9 @@
+package org.example.apigateway.security;
+
+import io.jsonwebtoken.security.KeyException;
+
+public class UnknownSigningKeyException extends KeyException {
+    public UnknownSigningKeyException(String keyId) {
+        super("No public key found for kid " + keyId);
+    }
+}
@@ -0,0 +1,6 @@
+package org.example.apigateway.security;
+
+import java.time.Instant;
+
+public record ValidatedToken(String userId, Instant expiresAt) {
+}
@@ -0,0 +1,107 @@
+package org.example.apigateway.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+@Component
+public class ValidatedTokenCache {
+    private static final String METRIC_NAME = "gateway.token.cache.requests";
+
+    private final Cache<String, ValidatedToken> cache;
+    private final ConcurrentMap<String, Mono<ValidatedToken>> inFlight = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+
+    public ValidatedTokenCache(MeterRegistry meterRegistry,
+                               @Value("${auth.token-cache.max-size}") long maxSize,
+                               @Value("${auth.token-cache.max-ttl}") long maxTtl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry(Duration.ofMillis(maxTtl)))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "validatedTokens");
+        this.hits = counter(meterRegistry, "hit");
+        this.misses = counter(meterRegistry, "miss");
+        this.coalesced = counter(meterRegistry, "coalesced");
+    }
+
+    public Mono<String> getUserId(String token, Function<String, Mono<ValidatedToken>> validator) {
+        String key = hash(token);
+
+        ValidatedToken cached = cache.getIfPresent(key);
+        if (cached != null) {
+            hits.increment();
+            return Mono.just(cached.userId());
+        }
+
+        Mono<ValidatedToken> validation = Mono.defer(() -> validator.apply(token))
+                .doOnNext(validatedToken -> cache.put(key, validatedToken))
+                .doFinally(signal -> inFlight.remove(key))
+                .cache();
+
+        Mono<ValidatedToken> existing = inFlight.putIfAbsent(key, validation);
+        if (existing != null) {
+            coalesced.increment();
+            return existing.map(ValidatedToken::userId);
+        }
+
+        misses.increment();
+        return validation.map(ValidatedToken::userId);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(METRIC_NAME)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record TokenExpiry(Duration maxTtl) implements Expiry<String, ValidatedToken> {
+        @Override
+        public long expireAfterCreate(String key, ValidatedToken value, long currentTime) {
+            Duration untilExpiration = Duration.between(Instant.now(), value.expiresAt());
+            if (untilExpiration.isNegative()) {
+                return 0;
+            }
+            return (untilExpiration.compareTo(maxTtl) < 0 ? untilExpiration : maxTtl).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, ValidatedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, ValidatedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package org.example.apigateway.filter;
 
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.apigateway.security.PublicKeyProvider;
+import org.example.apigateway.security.ValidatedTokenCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
@@ -11,6 +15,13 @@ import org.springframework.mock.web.server.MockServerWebExchange;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 class JwtValidationGatewayFilterFactoryTests {
@@ -18,16 +29,28 @@ class JwtValidationGatewayFilterFactoryTests {
     private WebClient webClient;
     private JwtValidationGatewayFilterFactory filterFactory;
     private GatewayFilterChain chain;
+    private PublicKeyProvider publicKeyProvider;
+    private KeyPair keyPair;
 
     @BeforeEach
-    void setUp() {
+    void setUp() throws Exception {
         webClientBuilder = mock(WebClient.Builder.class);
-        webClient = mock(WebClient.class, RETURNS_DEEP_STUBS);
+        webClient = mock(WebClient.class);
 
         when(webClientBuilder.baseUrl(any())).thenReturn(webClientBuilder);
         when(webClientBuilder.build()).thenReturn(webClient);
 
-        filterFactory = new JwtValidationGatewayFilterFactory(webClientBuilder, "http://auth-service");
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        keyPair = generator.generateKeyPair();
+
+        publicKeyProvider = mock(PublicKeyProvider.class);
+        when(publicKeyProvider.getPublicKey("kid-1")).thenReturn(keyPair.getPublic());
+
+        ValidatedTokenCache tokenCache = new ValidatedTokenCache(new SimpleMeterRegistry(), 100, 60_000);
+
+        filterFactory = new JwtValidationGatewayFilterFactory(webClientBuilder, "http://auth-service",
+                publicKeyProvider, tokenCache);
 
         chain = mock(GatewayFilterChain.class);
         when(chain.filter(any())).thenReturn(Mono.empty());
@@ -57,4 +80,106 @@ class JwtValidationGatewayFilterFactoryTests {
         assert exchange.getResponse().getStatusCode() == HttpStatus.UNAUTHORIZED;
         verify(chain, never()).filter(any());
     }
+
+    @Test
+    void givenValidToken_whenFilterInvoked_thenUserIdHeaderAddedWithoutRemoteCall() {
+        String token = buildToken(keyPair, Instant.now().plusSeconds(60));
+        MockServerWebExchange exchange = exchangeWithToken(token);
+
+        filterFactory.apply(new Object()).filter(exchange, chain).block();
+
+        verify(chain).filter(argThat(ex -> "42".equals(ex.getRequest().getHeaders().getFirst("X-User-Id"))));
+        verifyNoInteractions(webClient);
+    }
+
+    @Test
+    void givenExpiredToken_whenFilterInvoked_thenUnauthorized() {
+        String token = buildToken(keyPair, Instant.now().minusSeconds(60));
+        MockServerWebExchange exchange = exchangeWithToken(token);
+
+        filterFactory.apply(new Object()).filter(exchange, chain).block();
+
+        assert exchange.getResponse().getStatusCode() == HttpStatus.UNAUTHORIZED;
+        verify(chain, never()).filter(any());
+        verifyNoInteractions(webClient);
+    }
+
+    @Test
+    void givenBadSignatureWithKnownKeyId_whenFilterInvoked_thenUnauthorizedWithoutRemoteCall() throws Exception {
+        KeyPair otherKeyPair = KeyPairGenerator.getInstance("RSA").generateKeyPair();
+        String token = buildToken(otherKeyPair, Instant.now().plusSeconds(60));
+        MockServerWebExchange exchange = exchangeWithToken(token);
+
+        filterFactory.apply(new Object()).filter(exchange, chain).block();
+
+        assert exchange.getResponse().getStatusCode() == HttpStatus.UNAUTHORIZED;
+        verify(chain, never()).filter(any());
+        verify(publicKeyProvider, never()).requestRefresh();
+        verifyNoInteractions(webClient);
+    }
+
+    @Test
+    void givenUnknownKeyId_whenFilterInvoked_thenKeyRefreshRequestedAndRemoteValidationUsed() {
+        when(publicKeyProvider.getPublicKey("kid-1")).thenReturn(null);
+        String token = buildToken(keyPair, Instant.now().plusSeconds(60));
+        MockServerWebExchange exchange = exchangeWithToken(token);
+
+        stubRemoteValidation(Mono.just("42"));
+
+        filterFactory.apply(new Object()).filter(exchange, chain).block();
+
+        verify(publicKeyProvider).requestRefresh();
+        verify(chain).filter(argThat(ex -> "42".equals(ex.getRequest().getHeaders().getFirst("X-User-Id"))));
+    }
+
+    @Test
+    void givenSameTokenTwice_whenFilterInvoked_thenRemoteValidationCalledOnce() {
+        when(publicKeyProvider.getPublicKey("kid-1")).thenReturn(null);
+        String token = buildToken(keyPair, Instant.now().plusSeconds(60));
+        AtomicInteger remoteCalls = new AtomicInteger();
+
+        stubRemoteValidation(Mono.fromCallable(() -> {
+            remoteCalls.incrementAndGet();
+            return "42";
+        }));
+
+        filterFactory.apply(new Object()).filter(exchangeWithToken(token), chain).block();
+        filterFactory.apply(new Object()).filter(exchangeWithToken(token), chain).block();
+
+        assert remoteCalls.get() == 1;
+        verify(chain, times(2)).filter(argThat(ex -> "42".equals(ex.getRequest().getHeaders().getFirst("X-User-Id"))));
+    }
+
+    // deep stubs cannot follow the self-referencing generics of the request specs, so each step is mocked
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private void stubRemoteValidation(Mono<String> userId) {
+        WebClient.RequestHeadersUriSpec uriSpec = mock(WebClient.RequestHeadersUriSpec.class);
+        WebClient.RequestHeadersSpec headersSpec = mock(WebClient.RequestHeadersSpec.class);
+        WebClient.ResponseSpec responseSpec = mock(WebClient.ResponseSpec.class);
+
+        when(webClient.get()).thenReturn(uriSpec);
+        when(uriSpec.uri("/auth/validate")).thenReturn(headersSpec);
+        when(headersSpec.header(eq(HttpHeaders.AUTHORIZATION), any(String[].class))).thenReturn(headersSpec);
+        when(headersSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.bodyToMono(String.class)).thenReturn(userId);
+    }
+
+    private MockServerWebExchange exchangeWithToken(String token) {
+        MockServerHttpRequest request = MockServerHttpRequest.get("/test")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .build();
+        return MockServerWebExchange.from(request);
+    }
+
+    private String buildToken(KeyPair signingKeyPair, Instant expiresAt) {
+        return Jwts.builder()
+                .header().keyId("kid-1").and()
+                .subject("user@example.com")
+                .claim("token_type", "access_token")
+                .claim("user_id", "42")
+                .issuedAt(Date.from(expiresAt.minusSeconds(120)))
+                .expiration(Date.from(expiresAt))
+                .signWith(signingKeyPair.getPrivate())
+                .compact();
+    }
 }
@@ -0,0 +1,73 @@
+package org.example.apigateway.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PublicKeyProviderTests {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void givenJwks_whenParsed_thenKeysIndexedByKeyId() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        RSAPublicKey publicKey = (RSAPublicKey) generator.generateKeyPair().getPublic();
+
+        JsonNode jwks = objectMapper.readTree("""
+                {"keys":[
+                  {"kty":"RSA","kid":"kid-1","use":"sig","alg":"RS256","n":"%s","e":"%s"},
+                  {"kty":"oct","kid":"kid-2","k":"c2VjcmV0"}
+                ]}
+                """.formatted(encode(publicKey.getModulus()), encode(publicKey.getPublicExponent())));
+
+        Map<String, PublicKey> keys = PublicKeyProvider.parseJwks(jwks);
+
+        assertEquals(1, keys.size());
+        assertEquals(publicKey, keys.get("kid-1"));
+    }
+
+    @Test
+    void givenEcAndOkpJwks_whenParsed_thenKeysRebuilt() throws Exception {
+        KeyPairGenerator ecGenerator = KeyPairGenerator.getInstance("EC");
+        ecGenerator.initialize(new ECGenParameterSpec("secp256r1"));
+        ECPublicKey ecPublicKey = (ECPublicKey) ecGenerator.generateKeyPair().getPublic();
+        PublicKey edPublicKey = KeyPairGenerator.getInstance("Ed25519").generateKeyPair().getPublic();
+        byte[] edEncoded = edPublicKey.getEncoded();
+
+        JsonNode jwks = objectMapper.readTree("""
+                {"keys":[
+                  {"kty":"EC","crv":"P-256","kid":"kid-ec","alg":"ES256","x":"%s","y":"%s"},
+                  {"kty":"OKP","crv":"Ed25519","kid":"kid-ed","alg":"EdDSA","x":"%s"}
+                ]}
+                """.formatted(
+                encode(ecPublicKey.getW().getAffineX()),
+                encode(ecPublicKey.getW().getAffineY()),
+                Base64.getUrlEncoder().withoutPadding()
+                        .encodeToString(Arrays.copyOfRange(edEncoded, edEncoded.length - 32, edEncoded.length))));
+
+        Map<String, PublicKey> keys = PublicKeyProvider.parseJwks(jwks);
+
+        assertEquals(ecPublicKey, keys.get("kid-ec"));
+        assertEquals(edPublicKey, keys.get("kid-ed"));
+    }
+
+    private static String encode(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
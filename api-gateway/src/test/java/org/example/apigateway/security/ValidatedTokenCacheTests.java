@@ -0,0 +1,99 @@
+package org.example.apigateway.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValidatedTokenCacheTests {
+    private MeterRegistry meterRegistry;
+    private ValidatedTokenCache tokenCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tokenCache = new ValidatedTokenCache(meterRegistry, 100, 60_000);
+    }
+
+    @Test
+    void givenValidatedToken_whenRequestedAgain_thenServedFromCache() {
+        AtomicInteger validations = new AtomicInteger();
+
+        String first = tokenCache.getUserId("token", token -> {
+            validations.incrementAndGet();
+            return Mono.just(new ValidatedToken("42", Instant.now().plusSeconds(60)));
+        }).block();
+        String second = tokenCache.getUserId("token", token -> {
+            validations.incrementAndGet();
+            return Mono.just(new ValidatedToken("42", Instant.now().plusSeconds(60)));
+        }).block();
+
+        assertEquals("42", first);
+        assertEquals("42", second);
+        assertEquals(1, validations.get());
+        assertEquals(1.0, counter("hit"));
+        assertEquals(1.0, counter("miss"));
+    }
+
+    @Test
+    void givenExpiredToken_whenRequestedAgain_thenValidatedAgain() {
+        AtomicInteger validations = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            tokenCache.getUserId("token", token -> {
+                validations.incrementAndGet();
+                return Mono.just(new ValidatedToken("42", Instant.now().minusSeconds(1)));
+            }).block();
+        }
+
+        assertEquals(2, validations.get());
+        assertEquals(0.0, counter("hit"));
+    }
+
+    @Test
+    void givenValidationInFlight_whenSameTokenRequested_thenValidationShared() {
+        AtomicInteger validations = new AtomicInteger();
+        Sinks.One<ValidatedToken> sink = Sinks.one();
+
+        Mono<String> first = tokenCache.getUserId("token", token -> {
+            validations.incrementAndGet();
+            return sink.asMono();
+        });
+        Mono<String> second = tokenCache.getUserId("token", token -> {
+            validations.incrementAndGet();
+            return sink.asMono();
+        });
+
+        first.subscribe();
+        sink.tryEmitValue(new ValidatedToken("42", Instant.now().plusSeconds(60)));
+
+        assertEquals("42", second.block());
+        assertEquals(1, validations.get());
+        assertEquals(1.0, counter("coalesced"));
+    }
+
+    @Test
+    void givenFailedValidation_whenRequestedAgain_thenNotCached() {
+        AtomicInteger validations = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            assertThrows(IllegalStateException.class, () -> tokenCache.getUserId("token", token -> {
+                validations.incrementAndGet();
+                return Mono.error(new IllegalStateException("invalid"));
+            }).block());
+        }
+
+        assertEquals(2, validations.get());
+    }
+
+    private double counter(String result) {
+        return meterRegistry.get("gateway.token.cache.requests").tag("result", result).counter().count();
+    }
+}
@@ -2,18 +2,21 @@ package org.example.authservice.config;
 
 import net.devh.boot.grpc.server.security.authentication.BasicGrpcAuthenticationReader;
 import net.devh.boot.grpc.server.security.authentication.GrpcAuthenticationReader;
+import org.example.authservice.security.BoundedPasswordEncoder;
+import org.example.authservice.security.PasswordEncoderCalibrator;
+import org.example.authservice.security.PasswordHashingExecutor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
 public class BeansConfig {
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordEncoderCalibrator passwordEncoderCalibrator,
+                                           PasswordHashingExecutor passwordHashingExecutor) {
+        return new BoundedPasswordEncoder(passwordEncoderCalibrator.createPasswordEncoder(), passwordHashingExecutor);
     }
 
     @Bean
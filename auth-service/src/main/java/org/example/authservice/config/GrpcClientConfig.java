@@ -0,0 +1,56 @@
+package org.example.authservice.config;
+
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import org.example.authservice.grpc.GrpcClientMetricsInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import user.profile.UserProfileServiceGrpc;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class GrpcClientConfig {
+    @Bean(destroyMethod = "shutdown")
+    public ManagedChannel userProfileChannel(@Value("${user-profile.service.address}") String serverAddress,
+                                             @Value("${user-profile.service.port}") int serverPort,
+                                             @Value("${user-profile.service.keepalive-time}") long keepAliveTime,
+                                             @Value("${user-profile.service.keepalive-timeout}") long keepAliveTimeout,
+                                             @Value("${user-profile.service.idle-timeout}") long idleTimeout,
+                                             @Value("${user-profile.service.retry.max-attempts}") int maxAttempts,
+                                             GrpcClientMetricsInterceptor metricsInterceptor) {
+        return ManagedChannelBuilder.forAddress(serverAddress, serverPort)
+                .usePlaintext()
+                .keepAliveTime(keepAliveTime, TimeUnit.MILLISECONDS)
+                .keepAliveTimeout(keepAliveTimeout, TimeUnit.MILLISECONDS)
+                .idleTimeout(idleTimeout, TimeUnit.MILLISECONDS)
+                .defaultServiceConfig(userProfileServiceConfig(maxAttempts))
+                .enableRetry()
+                .intercept(metricsInterceptor)
+                .build();
+    }
+
+    // only idempotent reads are retried, CreateUserProfile must not be sent twice
+    public static Map<String, ?> userProfileServiceConfig(int maxAttempts) {
+        Map<String, Object> retryPolicy = Map.of(
+                "maxAttempts", (double) maxAttempts,
+                "initialBackoff", "0.1s",
+                "maxBackoff", "1s",
+                "backoffMultiplier", 2.0,
+                "retryableStatusCodes", List.of("UNAVAILABLE")
+        );
+
+        Map<String, Object> methodConfig = Map.of(
+                "name", List.of(
+                        Map.of("service", UserProfileServiceGrpc.SERVICE_NAME, "method", "GetUserProfileInfo"),
+                        Map.of("service", UserProfileServiceGrpc.SERVICE_NAME, "method", "CheckPhoneNumber")
+                ),
+                "retryPolicy", retryPolicy
+        );
+
+        return Map.of("methodConfig", List.of(methodConfig));
+    }
+}
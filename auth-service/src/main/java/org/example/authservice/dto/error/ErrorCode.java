@@ -30,6 +30,12 @@ public enum ErrorCode {
     UNAUTHORIZED("UNAUTHORIZED", "Доступ заборонено. Будь ласка, увійдіть у систему.", HttpStatus.UNAUTHORIZED),
     REFRESH_TOKEN_MISSED("REFRESH_TOKEN_MISSED", "Токен оновлення відсутній у куках запиту", HttpStatus.UNAUTHORIZED),
     PHONE_IS_EMPTY("PHONE_IS_EMPTY", "Номер телефону порожній", HttpStatus.BAD_REQUEST),
+    PASSWORD_HASHING_OVERLOADED("ERR_SERVICE_OVERLOADED",
+            "Сервіс тимчасово перевантажено, будь ласка, спробуйте ще раз пізніше",
+            HttpStatus.SERVICE_UNAVAILABLE),
+    USER_PROFILE_SERVICE_UNAVAILABLE("ERR_USER_PROFILE_SERVICE_UNAVAILABLE",
+            "Сервіс профілів користувачів тимчасово недоступний, спробуйте пізніше",
+            HttpStatus.SERVICE_UNAVAILABLE),
     ;
 
     private final String code;
@@ -0,0 +1,6 @@
+package org.example.authservice.event;
+
+public record ProfileChangedEvent(
+        String userId
+) {
+}
@@ -0,0 +1,36 @@
+package org.example.authservice.grpc;
+
+import io.grpc.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class GrpcClientMetricsInterceptor implements ClientInterceptor {
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+                                                               CallOptions callOptions,
+                                                               Channel next) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+
+        return new ForwardingClientCall.SimpleForwardingClientCall<>(next.newCall(method, callOptions)) {
+            @Override
+            public void start(Listener<RespT> responseListener, Metadata headers) {
+                super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<>(responseListener) {
+                    @Override
+                    public void onClose(Status status, Metadata trailers) {
+                        sample.stop(Timer.builder("grpc.client.requests")
+                                .tag("method", method.getFullMethodName())
+                                .tag("status", status.getCode().name())
+                                .register(meterRegistry));
+                        super.onClose(status, trailers);
+                    }
+                }, headers);
+            }
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.authservice.grpc;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import user.profile.GetUserProfileInfoResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+@Component
+public class UserProfileInfoCache {
+    private final AsyncCache<String, GetUserProfileInfoResponse> cache;
+
+    public UserProfileInfoCache(MeterRegistry meterRegistry,
+                                @Value("${user-profile.cache.ttl}") long ttl,
+                                @Value("${user-profile.cache.max-size}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttl))
+                .recordStats()
+                .buildAsync();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userProfileInfo");
+    }
+
+    // concurrent lookups for the same user share one in-flight call, failed calls are not cached. Caffeine drops a
+    // failed future in a completion callback that may not have run yet, so one still in the map is removed here
+    public CompletableFuture<GetUserProfileInfoResponse> get(String userId,
+                                                             Function<String, CompletableFuture<GetUserProfileInfoResponse>> loader) {
+        CompletableFuture<GetUserProfileInfoResponse> current = cache.asMap().get(userId);
+        if (current != null && current.isCompletedExceptionally()) {
+            cache.asMap().remove(userId, current);
+        }
+        return cache.get(userId, (key, executor) -> loader.apply(key));
+    }
+
+    public void invalidate(String userId) {
+        cache.synchronous().invalidate(userId);
+    }
+}
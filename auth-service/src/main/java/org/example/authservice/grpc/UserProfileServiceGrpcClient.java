@@ -1,44 +1,120 @@
 package org.example.authservice.grpc;
 
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import io.grpc.ManagedChannel;
-import io.grpc.ManagedChannelBuilder;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
 import lombok.extern.slf4j.Slf4j;
+import org.example.authservice.dto.error.ErrorCode;
+import org.example.authservice.exception.BusinessException;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import user.profile.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
 @Slf4j
 @Service
 public class UserProfileServiceGrpcClient {
     private final UserProfileServiceGrpc.UserProfileServiceBlockingStub blockingStub;
+    private final UserProfileServiceGrpc.UserProfileServiceFutureStub futureStub;
+    private final UserProfileInfoCache userProfileInfoCache;
+    private final long createProfileDeadline;
+    private final long checkPhoneNumberDeadline;
+    private final long getProfileInfoDeadline;
 
     public UserProfileServiceGrpcClient(
-            @Value("${user-profile.service.address}") String serverAddress,
-            @Value("${user-profile.service.port}") int serverPort
+            ManagedChannel userProfileChannel,
+            UserProfileInfoCache userProfileInfoCache,
+            @Value("${user-profile.service.deadline.create-user-profile}") long createProfileDeadline,
+            @Value("${user-profile.service.deadline.check-phone-number}") long checkPhoneNumberDeadline,
+            @Value("${user-profile.service.deadline.get-user-profile-info}") long getProfileInfoDeadline
     ) {
-        log.info("Connecting to user profile service at {}:{}", serverAddress, serverPort);
-
-        ManagedChannel channel = ManagedChannelBuilder.forAddress(serverAddress, serverPort)
-                .usePlaintext().build();
+        log.info("Connecting to user profile service at {}", userProfileChannel.authority());
 
-        blockingStub = UserProfileServiceGrpc.newBlockingStub(channel);
+        this.blockingStub = UserProfileServiceGrpc.newBlockingStub(userProfileChannel);
+        this.futureStub = UserProfileServiceGrpc.newFutureStub(userProfileChannel);
+        this.userProfileInfoCache = userProfileInfoCache;
+        this.createProfileDeadline = createProfileDeadline;
+        this.checkPhoneNumberDeadline = checkPhoneNumberDeadline;
+        this.getProfileInfoDeadline = getProfileInfoDeadline;
     }
 
     public CreateUserProfileResponse createUserProfile(CreateUserProfileRequest request) {
-        CreateUserProfileResponse response = blockingStub.createUserProfile(request);
+        CreateUserProfileResponse response = call(() -> blockingStub
+                .withDeadlineAfter(createProfileDeadline, TimeUnit.MILLISECONDS)
+                .createUserProfile(request));
         log.info("Created user profile: {}", response);
+        userProfileInfoCache.invalidate(request.getUserId());
         return response;
     }
 
     public CheckPhoneNumberResponse checkPhoneNumber(CheckPhoneNumberRequest request) {
-        CheckPhoneNumberResponse response = blockingStub.checkPhoneNumber(request);
+        CheckPhoneNumberResponse response = call(() -> blockingStub
+                .withDeadlineAfter(checkPhoneNumberDeadline, TimeUnit.MILLISECONDS)
+                .checkPhoneNumber(request));
         log.info("Checked phone number: {}", response);
         return response;
     }
 
     public GetUserProfileInfoResponse getUserProfileInfo(GetUserProfileInfoRequest request) {
-        GetUserProfileInfoResponse response = blockingStub.getUserProfileInfo(request);
+        GetUserProfileInfoResponse response = call(() -> blockingStub
+                .withDeadlineAfter(getProfileInfoDeadline, TimeUnit.MILLISECONDS)
+                .getUserProfileInfo(request));
         log.info("Get user profile info: {}", response);
         return response;
     }
+
+    public CompletableFuture<GetUserProfileInfoResponse> getUserProfileInfoAsync(GetUserProfileInfoRequest request) {
+        return userProfileInfoCache.get(request.getUserId(), userId -> fetchUserProfileInfo(request));
+    }
+
+    private CompletableFuture<GetUserProfileInfoResponse> fetchUserProfileInfo(GetUserProfileInfoRequest request) {
+        ListenableFuture<GetUserProfileInfoResponse> call = futureStub
+                .withDeadlineAfter(getProfileInfoDeadline, TimeUnit.MILLISECONDS)
+                .getUserProfileInfo(request);
+
+        CompletableFuture<GetUserProfileInfoResponse> result = new CompletableFuture<>();
+        Futures.addCallback(call, new FutureCallback<>() {
+            @Override
+            public void onSuccess(GetUserProfileInfoResponse response) {
+                log.info("Get user profile info: {}", response);
+                result.complete(response);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                result.completeExceptionally(translate(t));
+            }
+        }, MoreExecutors.directExecutor());
+
+        result.whenComplete((response, ex) -> {
+            if (result.isCancelled()) {
+                call.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private static <T> T call(Supplier<T> rpc) {
+        try {
+            return rpc.get();
+        } catch (StatusRuntimeException e) {
+            throw translate(e);
+        }
+    }
+
+    private static RuntimeException translate(Throwable t) {
+        Status.Code code = Status.fromThrowable(t).getCode();
+        if (code == Status.Code.UNAVAILABLE || code == Status.Code.DEADLINE_EXCEEDED) {
+            log.warn("User profile service call failed with {}", code);
+            return new BusinessException(ErrorCode.USER_PROFILE_SERVICE_UNAVAILABLE);
+        }
+        return t instanceof RuntimeException runtimeException ? runtimeException : new IllegalStateException(t);
+    }
 }
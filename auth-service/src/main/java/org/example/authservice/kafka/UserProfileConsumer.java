@@ -0,0 +1,31 @@
+package org.example.authservice.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.authservice.event.ProfileChangedEvent;
+import org.example.authservice.grpc.UserProfileInfoCache;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserProfileConsumer {
+    private final UserProfileInfoCache userProfileInfoCache;
+    private final ObjectMapper objectMapper;
+
+    // every instance keeps its own cache, so every instance needs its own consumer group. The id comes from the
+    // host name rather than a random one, so a restart rejoins its group instead of leaving an abandoned one behind
+    @KafkaListener(topics = "user-profile-changed-events", groupId = "${user-profile.cache.group-id}")
+    public void consumeProfileChangedEvent(byte[] payload) {
+        try {
+            ProfileChangedEvent event = objectMapper.readValue(payload, ProfileChangedEvent.class);
+            log.debug("Received profile changed event: userId={}", event.userId());
+
+            userProfileInfoCache.invalidate(event.userId());
+        } catch (Exception ex) {
+            log.error("Failed to process profile changed event: {}", ex.getMessage(), ex);
+        }
+    }
+}
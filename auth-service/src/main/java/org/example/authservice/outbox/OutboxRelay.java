@@ -0,0 +1,57 @@
+package org.example.authservice.outbox;
+
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.example.authservice.model.OutboxEvent;
+import org.example.authservice.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+public class OutboxRelay {
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final int batchSize;
+    private final long sendTimeout;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       KafkaTemplate<String, byte[]> kafkaTemplate,
+                       @Value("${app.outbox.batch-size}") int batchSize,
+                       @Value("${app.outbox.send-timeout}") long sendTimeout) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+    }
+
+    // rows stay locked until the batch is acknowledged by kafka, a failure rolls back and retries on the next poll
+    @Transactional
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval}")
+    public void relay() {
+        List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(batchSize);
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        CompletableFuture<?>[] sends = batch.stream()
+                .map(event -> kafkaTemplate.send(event.getTopic(), event.getAggregateId(), event.getPayload()))
+                .toArray(CompletableFuture[]::new);
+
+        try {
+            CompletableFuture.allOf(sends).get(sendTimeout, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            log.warn("Failed to relay {} outbox events, will retry: {}", batch.size(), e.getMessage());
+            throw new IllegalStateException("Outbox relay failed", e);
+        }
+
+        outboxEventRepository.deleteAllInBatch(batch);
+        log.debug("Relayed {} outbox events", batch.size());
+    }
+}
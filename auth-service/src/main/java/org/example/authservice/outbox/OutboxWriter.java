@@ -0,0 +1,33 @@
+package org.example.authservice.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.example.authservice.model.OutboxEvent;
+import org.example.authservice.repository.OutboxEventRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    // must join the caller's transaction so the event is stored atomically with the state change
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void enqueue(String topic, String aggregateId, Object event) {
+        try {
+            outboxEventRepository.save(OutboxEvent.builder()
+                    .topic(topic)
+                    .aggregateId(aggregateId)
+                    .payload(objectMapper.writeValueAsBytes(event))
+                    .createdAt(Instant.now())
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize outbox event for " + aggregateId, e);
+        }
+    }
+}
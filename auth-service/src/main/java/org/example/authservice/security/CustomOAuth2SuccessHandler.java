@@ -92,7 +92,7 @@ public class CustomOAuth2SuccessHandler extends SimpleUrlAuthenticationSuccessHa
                         .build()
         );
 
-        String accessToken = jwtService.generateAccessToken(email, userId.toString());
+        String accessToken = jwtService.generateAccessToken(appUser);
         String refreshToken = jwtService.generateRefreshToken(email, userId.toString());
         cookieUtils.addRefreshTokenCookie(response, refreshToken);
 
@@ -0,0 +1,29 @@
+package org.example.authservice.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@Component
+@ConditionalOnProperty(name = "app.security.keys.source", havingValue = "file")
+public class FileKeySecretSource implements KeySecretSource {
+    private final Path path;
+
+    public FileKeySecretSource(@Value("${app.security.keys.file}") Path path) {
+        this.path = path;
+    }
+
+    @Override
+    public String loadSecret() {
+        try {
+            return Files.readString(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read keys from " + path, e);
+        }
+    }
+}
@@ -8,6 +8,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -16,6 +18,9 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
 
 @Slf4j
 @Component
@@ -23,6 +28,7 @@ import java.io.IOException;
 public class JwtFilter extends OncePerRequestFilter {
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final UserStateCache userStateCache;
 
     private static final String AUTHORIZATION_PREFIX = "Bearer ";
 
@@ -43,12 +49,13 @@ public class JwtFilter extends OncePerRequestFilter {
 
         try {
             final String token = authHeader.substring(AUTHORIZATION_PREFIX.length());
-            final String email = jwtService.extractEmail(token);
+            final VerifiedToken verifiedToken = jwtService.verify(token);
+            final String email = verifiedToken.email();
 
             if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-                if (jwtService.isTokenValid(token, email)) {
-                    var authToken = new UsernamePasswordAuthenticationToken(email, null, userDetails.getAuthorities());
+                Collection<? extends GrantedAuthority> authorities = resolveAuthorities(verifiedToken);
+                if (authorities != null) {
+                    var authToken = new UsernamePasswordAuthenticationToken(email, null, authorities);
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
                 }
@@ -60,4 +67,20 @@ public class JwtFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private Collection<? extends GrantedAuthority> resolveAuthorities(VerifiedToken verifiedToken) {
+        if (userStateCache.isEnabled()) {
+            return userStateCache.get(UUID.fromString(verifiedToken.userId()))
+                    .filter(UserStateCache.UserState::enabled)
+                    .map(state -> List.of(new SimpleGrantedAuthority(state.role())))
+                    .orElse(null);
+        }
+
+        if (verifiedToken.hasAuthorityClaims()) {
+            return verifiedToken.enabled() ? List.of(new SimpleGrantedAuthority(verifiedToken.role())) : null;
+        }
+
+        UserDetails userDetails = userDetailsService.loadUserByUsername(verifiedToken.email());
+        return userDetails.getAuthorities() == null ? List.of() : userDetails.getAuthorities();
+    }
 }
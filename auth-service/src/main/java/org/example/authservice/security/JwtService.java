@@ -2,33 +2,34 @@ package org.example.authservice.security;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwsHeader;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import jakarta.annotation.PostConstruct;
+import io.jsonwebtoken.LocatorAdapter;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
+import org.example.authservice.model.User;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
 
-import java.security.PrivateKey;
-import java.security.PublicKey;
+import java.security.Key;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Date;
 import java.util.Map;
 import java.util.UUID;
 
 @Service
-@RequiredArgsConstructor
 public class JwtService {
     private final KeyUtils keyUtils;
+    private final JwtParser jwtParser;
 
     private static final String TOKEN_TYPE = "token_type";
     private static final String USER_ID = "user_id";
-
-    private PrivateKey privateKey;
-    private PublicKey publicKey;
+    private static final String ROLE = "role";
+    private static final String ENABLED = "enabled";
 
     @Value("${app.security.jwt.access-token-expiration}")
     private Long accessTokenExpiration;
@@ -37,13 +38,18 @@ public class JwtService {
     @Value("${app.security.jwt.refresh-token-expiration}")
     private Long refreshTokenExpiration;
 
-    @PostConstruct
-    public void initKeys() {
-        this.privateKey = keyUtils.getPrivateKey();
-        this.publicKey = keyUtils.getPublicKey();
+    public JwtService(KeyUtils keyUtils) {
+        this.keyUtils = keyUtils;
+        this.jwtParser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        return keyUtils.getPublicKey(header.getKeyId());
+                    }
+                })
+                .build();
     }
 
-
     public String generateAccessToken(String subject, String userId) {
         checkSubject(subject);
         checkUserId(userId);
@@ -55,6 +61,19 @@ public class JwtService {
         return buildToken(subject, claims, accessTokenExpiration);
     }
 
+    public String generateAccessToken(User user) {
+        checkSubject(user.getEmail());
+        checkUserId(user.getId() == null ? null : user.getId().toString());
+
+        Map<String, Object> claims = Map.of(
+                TOKEN_TYPE, "access_token",
+                USER_ID, user.getId().toString(),
+                ROLE, user.getRole().name(),
+                ENABLED, user.isEnabled()
+        );
+        return buildToken(user.getEmail(), claims, accessTokenExpiration);
+    }
+
     public String generateRefreshToken(String subject, String userId) {
         checkSubject(subject);
         checkUserId(userId);
@@ -67,16 +86,29 @@ public class JwtService {
     }
 
     public String refreshAccessToken(String refreshToken) {
-        Claims claims = extractClaims(refreshToken);
-        if (!"refresh_token".equals(claims.get(TOKEN_TYPE))) {
-            throw new IllegalArgumentException("Invalid refresh token");
-        }
+        return refreshAccessToken(verify(refreshToken));
+    }
 
-        if (isTokenExpired(refreshToken)) {
-            throw new IllegalArgumentException("Refresh token has expired");
-        }
+    public String refreshAccessToken(VerifiedToken refreshToken) {
+        checkRefreshToken(refreshToken);
+        return generateAccessToken(refreshToken.email(), refreshToken.userId());
+    }
 
-        return buildToken(claims.getSubject(), claims, accessTokenExpiration);
+    public String refreshAccessToken(VerifiedToken refreshToken, User user) {
+        checkRefreshToken(refreshToken);
+        return generateAccessToken(user);
+    }
+
+    public VerifiedToken verify(String token) {
+        Claims claims = extractClaims(token);
+        return new VerifiedToken(
+                claims.getSubject(),
+                claims.get(USER_ID, String.class),
+                claims.get(TOKEN_TYPE, String.class),
+                claims.get(ROLE, String.class),
+                claims.get(ENABLED, Boolean.class),
+                claims.getExpiration().toInstant()
+        );
     }
 
     public boolean isTokenValid(String token, String expectedEmail) {
@@ -84,14 +116,14 @@ public class JwtService {
             return false;
         }
         try {
-            return extractEmail(token).equals(expectedEmail) && !isTokenExpired(token);
+            return verify(token).email().equals(expectedEmail);
         } catch (RuntimeException ex) {
             return false;
         }
     }
 
     public String extractEmail(String token) {
-        return extractClaims(token).getSubject();
+        return verify(token).email();
     }
 
     public String extractToken(HttpServletRequest request) {
@@ -103,24 +135,38 @@ public class JwtService {
     }
 
     public UUID extractUserId(HttpServletRequest request) {
-        return UUID.fromString(extractUserId(extractToken(request)));
+        return UUID.fromString(verify(extractToken(request)).userId());
     }
 
     public String extractUserId(String token) {
-        return extractClaims(token).get(USER_ID, String.class);
+        return verify(token).userId();
     }
 
 
     private String buildToken(String subject, Map<String, Object> claims, Long expiration) {
+        SigningKey signingKey = keyUtils.getSigningKey();
+
         return Jwts.builder()
+                .header().keyId(signingKey.keyId()).and()
                 .subject(subject)
                 .claims(claims)
                 .issuedAt(Date.from(Instant.now()))
-                .expiration(Date.from(Instant.now().plusSeconds(expiration)))
-                .signWith(privateKey)
+                .expiration(Date.from(Instant.now().plus(tokenLifetime(expiration))))
+                .signWith(signingKey.privateKey(), signingKey.algorithm().getJwtAlgorithm())
                 .compact();
     }
 
+    // the expiration properties are read as seconds, KeyUtils keeps retired keys for the same lifetime
+    static Duration tokenLifetime(long expiration) {
+        return Duration.ofSeconds(expiration);
+    }
+
+    private void checkRefreshToken(VerifiedToken refreshToken) {
+        if (!refreshToken.isRefreshToken()) {
+            throw new IllegalArgumentException("Invalid refresh token");
+        }
+    }
+
     private void checkSubject(String subject) {
         if (subject == null || subject.isEmpty()) {
             throw new IllegalArgumentException("Subject (email) must not be null or empty");
@@ -133,17 +179,9 @@ public class JwtService {
         }
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractClaims(token).getExpiration().before(new Date());
-    }
-
     private Claims extractClaims(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(publicKey)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            return jwtParser.parseSignedClaims(token).getPayload();
         } catch (ExpiredJwtException ex) {
             throw new RuntimeException("Token has expired", ex);
         } catch (JwtException ex) {
@@ -0,0 +1,5 @@
+package org.example.authservice.security;
+
+public interface KeySecretSource {
+    String loadSecret();
+}
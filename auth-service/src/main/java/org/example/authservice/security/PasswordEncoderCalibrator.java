@@ -0,0 +1,123 @@
+package org.example.authservice.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Slf4j
+@Component
+public class PasswordEncoderCalibrator {
+    public static final String BCRYPT = "bcrypt";
+    public static final String ARGON2 = "argon2";
+
+    private static final int ARGON2_SALT_LENGTH = 16;
+    private static final int ARGON2_HASH_LENGTH = 32;
+    private static final int SAMPLES = 3;
+    private static final String SAMPLE_PASSWORD = "calibration-Password-123!";
+
+    private final String algorithm;
+    private final long targetLatency;
+    private final int bcryptMinStrength;
+    private final int bcryptMaxStrength;
+    private final int argon2Memory;
+    private final int argon2Parallelism;
+    private final int argon2MinIterations;
+    private final int argon2MaxIterations;
+
+    public PasswordEncoderCalibrator(@Value("${app.security.password-hashing.algorithm}") String algorithm,
+                                     @Value("${app.security.password-hashing.target-latency}") long targetLatency,
+                                     @Value("${app.security.password-hashing.bcrypt.min-strength}") int bcryptMinStrength,
+                                     @Value("${app.security.password-hashing.bcrypt.max-strength}") int bcryptMaxStrength,
+                                     @Value("${app.security.password-hashing.argon2.memory}") int argon2Memory,
+                                     @Value("${app.security.password-hashing.argon2.parallelism}") int argon2Parallelism,
+                                     @Value("${app.security.password-hashing.argon2.min-iterations}") int argon2MinIterations,
+                                     @Value("${app.security.password-hashing.argon2.max-iterations}") int argon2MaxIterations) {
+        if (!BCRYPT.equals(algorithm) && !ARGON2.equals(algorithm)) {
+            throw new IllegalArgumentException("Unsupported password hashing algorithm: " + algorithm);
+        }
+        this.algorithm = algorithm;
+        this.targetLatency = targetLatency;
+        this.bcryptMinStrength = bcryptMinStrength;
+        this.bcryptMaxStrength = bcryptMaxStrength;
+        this.argon2Memory = argon2Memory;
+        this.argon2Parallelism = argon2Parallelism;
+        this.argon2MinIterations = argon2MinIterations;
+        this.argon2MaxIterations = argon2MaxIterations;
+    }
+
+    public PasswordEncoder createPasswordEncoder() {
+        BCryptPasswordEncoder bcrypt = BCRYPT.equals(algorithm)
+                ? new BCryptPasswordEncoder(calibrateBcryptStrength())
+                : new BCryptPasswordEncoder(bcryptMinStrength);
+        Argon2PasswordEncoder argon2 = ARGON2.equals(algorithm)
+                ? argon2Encoder(calibrateArgon2Iterations())
+                : argon2Encoder(argon2MinIterations);
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, bcrypt);
+        encoders.put(ARGON2, argon2);
+
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder(algorithm, encoders);
+        // hashes stored before the upgrade have no {id} prefix and are plain bcrypt
+        passwordEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return passwordEncoder;
+    }
+
+    private int calibrateBcryptStrength() {
+        long measured = measure(new BCryptPasswordEncoder(bcryptMinStrength));
+        int strength = bcryptStrength(measured, targetLatency, bcryptMinStrength, bcryptMaxStrength);
+        log.info("Calibrated bcrypt strength {} ({} ms at strength {}, target {} ms)",
+                strength, measured, bcryptMinStrength, targetLatency);
+        return strength;
+    }
+
+    private int calibrateArgon2Iterations() {
+        long measured = measure(argon2Encoder(argon2MinIterations));
+        int iterations = argon2Iterations(measured, targetLatency, argon2MinIterations, argon2MaxIterations);
+        log.info("Calibrated argon2id iterations {} ({} ms at {} iterations, {} KiB, target {} ms)",
+                iterations, measured, argon2MinIterations, argon2Memory, targetLatency);
+        return iterations;
+    }
+
+    private Argon2PasswordEncoder argon2Encoder(int iterations) {
+        return new Argon2PasswordEncoder(ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH, argon2Parallelism, argon2Memory, iterations);
+    }
+
+    private static long measure(PasswordEncoder encoder) {
+        encoder.encode(SAMPLE_PASSWORD);
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return Math.max(1, Duration.ofNanos(best).toMillis());
+    }
+
+    // every bcrypt strength step doubles the work
+    static int bcryptStrength(long measuredAtMin, long targetLatency, int minStrength, int maxStrength) {
+        int strength = minStrength;
+        long expected = measuredAtMin;
+        while (strength < maxStrength && expected * 2 <= targetLatency) {
+            expected *= 2;
+            strength++;
+        }
+        return strength;
+    }
+
+    // argon2 time grows linearly with the number of iterations
+    static int argon2Iterations(long measuredAtMin, long targetLatency, int minIterations, int maxIterations) {
+        long perIteration = Math.max(1, measuredAtMin / minIterations);
+        long iterations = targetLatency / perIteration;
+        return (int) Math.max(minIterations, Math.min(maxIterations, iterations));
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.authservice.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
+import software.amazon.awssdk.services.secretsmanager.model.GetSecretValueRequest;
+
+@Component
+@ConditionalOnProperty(name = "app.security.keys.source", havingValue = "secrets-manager", matchIfMissing = true)
+public class SecretsManagerKeySecretSource implements KeySecretSource {
+    private final SecretsManagerClient secretsManagerClient;
+    private final String secretName;
+
+    public SecretsManagerKeySecretSource(SecretsManagerClient secretsManagerClient,
+                                         @Value("${app.security.keys.secret-name}") String secretName) {
+        this.secretsManagerClient = secretsManagerClient;
+        this.secretName = secretName;
+    }
+
+    @Override
+    public String loadSecret() {
+        GetSecretValueRequest request = GetSecretValueRequest.builder()
+                .secretId(secretName)
+                .build();
+
+        return secretsManagerClient.getSecretValue(request).secretString();
+    }
+}
@@ -18,6 +18,8 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
     private static final String[] PUBLIC_URLS = {
             "/auth/**",
+            "/.well-known/**",
+            "/actuator/health",
             "/oauth2/**",
             "/v2/api-docs",
             "/v3/api-docs",
@@ -0,0 +1,105 @@
+package org.example.authservice.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.math.BigInteger;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.EdECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter
+@RequiredArgsConstructor
+public enum SigningAlgorithm {
+    RS256("RSA", Jwts.SIG.RS256) {
+        @Override
+        boolean supports(PublicKey publicKey) {
+            return publicKey instanceof RSAPublicKey;
+        }
+
+        @Override
+        Map<String, String> publicJwk(PublicKey publicKey) {
+            RSAPublicKey rsaPublicKey = (RSAPublicKey) publicKey;
+            Map<String, String> jwk = new LinkedHashMap<>();
+            jwk.put("e", encode(unsigned(rsaPublicKey.getPublicExponent())));
+            jwk.put("kty", "RSA");
+            jwk.put("n", encode(unsigned(rsaPublicKey.getModulus())));
+            return jwk;
+        }
+    },
+    ES256("EC", Jwts.SIG.ES256) {
+        @Override
+        boolean supports(PublicKey publicKey) {
+            return publicKey instanceof ECPublicKey ecPublicKey
+                    && ecPublicKey.getParams().getCurve().getField().getFieldSize() == 256;
+        }
+
+        @Override
+        Map<String, String> publicJwk(PublicKey publicKey) {
+            ECPublicKey ecPublicKey = (ECPublicKey) publicKey;
+            Map<String, String> jwk = new LinkedHashMap<>();
+            jwk.put("crv", "P-256");
+            jwk.put("kty", "EC");
+            jwk.put("x", encode(fixedLength(ecPublicKey.getW().getAffineX(), 32)));
+            jwk.put("y", encode(fixedLength(ecPublicKey.getW().getAffineY(), 32)));
+            return jwk;
+        }
+    },
+    EdDSA("Ed25519", Jwts.SIG.EdDSA) {
+        @Override
+        boolean supports(PublicKey publicKey) {
+            return publicKey instanceof EdECPublicKey edPublicKey
+                    && "Ed25519".equals(edPublicKey.getParams().getName());
+        }
+
+        @Override
+        Map<String, String> publicJwk(PublicKey publicKey) {
+            byte[] encoded = publicKey.getEncoded();
+            Map<String, String> jwk = new LinkedHashMap<>();
+            jwk.put("crv", "Ed25519");
+            jwk.put("kty", "OKP");
+            jwk.put("x", encode(Arrays.copyOfRange(encoded, encoded.length - 32, encoded.length)));
+            return jwk;
+        }
+    };
+
+    private final String keyFactoryAlgorithm;
+    private final SignatureAlgorithm jwtAlgorithm;
+
+    abstract boolean supports(PublicKey publicKey);
+
+    /**
+     * Required public members of the JWK, in the lexicographic order used for RFC 7638 thumbprints.
+     */
+    abstract Map<String, String> publicJwk(PublicKey publicKey);
+
+    public static SigningAlgorithm of(PublicKey publicKey) {
+        return Arrays.stream(values())
+                .filter(algorithm -> algorithm.supports(publicKey))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported key type: " + publicKey.getAlgorithm()));
+    }
+
+    private static byte[] unsigned(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        return bytes.length > 1 && bytes[0] == 0 ? Arrays.copyOfRange(bytes, 1, bytes.length) : bytes;
+    }
+
+    private static byte[] fixedLength(BigInteger value, int length) {
+        byte[] bytes = unsigned(value);
+        byte[] padded = new byte[length];
+        System.arraycopy(bytes, 0, padded, length - bytes.length, bytes.length);
+        return padded;
+    }
+
+    private static String encode(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
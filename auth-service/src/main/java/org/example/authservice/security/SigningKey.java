@@ -0,0 +1,6 @@
+package org.example.authservice.security;
+
+import java.security.PrivateKey;
+
+public record SigningKey(String keyId, SigningAlgorithm algorithm, PrivateKey privateKey) {
+}
@@ -0,0 +1,41 @@
+package org.example.authservice.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Getter;
+import org.example.authservice.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+@Component
+public class UserStateCache {
+    private final UserRepository userRepository;
+    private final Cache<UUID, Optional<UserState>> cache;
+
+    @Getter
+    private final boolean enabled;
+
+    public UserStateCache(UserRepository userRepository,
+                          @Value("${app.security.user-state-cache.enabled}") boolean enabled,
+                          @Value("${app.security.user-state-cache.ttl}") long ttl,
+                          @Value("${app.security.user-state-cache.max-size}") long maxSize) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(ttl))
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public Optional<UserState> get(UUID userId) {
+        return cache.get(userId, id -> userRepository.findById(id)
+                .map(user -> new UserState(user.getRole().name(), user.isEnabled())));
+    }
+
+    public record UserState(String role, boolean enabled) {
+    }
+}
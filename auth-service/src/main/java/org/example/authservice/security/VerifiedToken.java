@@ -0,0 +1,13 @@
+package org.example.authservice.security;
+
+import java.time.Instant;
+
+public record VerifiedToken(String email, String userId, String tokenType, String role, Boolean enabled, Instant expiresAt) {
+    public boolean isRefreshToken() {
+        return "refresh_token".equals(tokenType);
+    }
+
+    public boolean hasAuthorityClaims() {
+        return role != null && enabled != null;
+    }
+}
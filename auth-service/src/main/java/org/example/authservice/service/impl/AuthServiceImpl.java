@@ -10,27 +10,36 @@ import org.example.authservice.dto.auth.ChangePasswordRequest;
 import org.example.authservice.dto.auth.LoginRequest;
 import org.example.authservice.dto.auth.RegistrationRequest;
 import org.example.authservice.dto.error.ErrorCode;
+import org.example.authservice.event.UserRegisteredEvent;
 import org.example.authservice.exception.BusinessException;
 import org.example.authservice.grpc.UserProfileServiceGrpcClient;
 import org.example.authservice.mapper.UserMapper;
 import org.example.authservice.model.User;
+import org.example.authservice.outbox.OutboxWriter;
 import org.example.authservice.repository.UserRepository;
 import org.example.authservice.security.CookieUtils;
 import org.example.authservice.security.JwtService;
+import org.example.authservice.security.VerifiedToken;
 import org.example.authservice.service.AuthService;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
 import user.profile.*;
 
 import java.time.format.DateTimeFormatter;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class AuthServiceImpl implements AuthService {
+    private static final String USER_REGISTERED_TOPIC = "user-registered-events";
+    private static final DateTimeFormatter DATE_OF_BIRTH_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
     private final UserMapper userMapper;
     private final JwtService jwtService;
     private final CookieUtils cookieUtils;
@@ -38,31 +47,28 @@ public class AuthServiceImpl implements AuthService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final UserProfileServiceGrpcClient userProfileServiceGrpcClient;
+    private final OutboxWriter outboxWriter;
+    private final TransactionOperations transactionOperations;
 
     @Override
-    @Transactional
     public AuthResponse register(RegistrationRequest request, HttpServletResponse response) {
         checkPasswords(request.password(), request.confirmPassword());
 
         User user = userMapper.toUser(request);
-        userRepository.save(user);
-
-        CreateUserProfileRequest userProfileRequest = CreateUserProfileRequest.newBuilder()
-                .setUsername(request.username())
-                .setPhoneNumber(request.phoneNumber())
-                .setDateOfBirth(request.dateOfBirth().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")))
-                .setGenderId(request.genderId())
-                .setAvatarKey("")
-                .setUserId(String.valueOf(user.getId()))
-                .build();
 
-        CreateUserProfileResponse profileResponse = userProfileServiceGrpcClient.createUserProfile(userProfileRequest);
+        transactionOperations.executeWithoutResult(status -> {
+            userRepository.save(user);
+            outboxWriter.enqueue(USER_REGISTERED_TOPIC, user.getId().toString(), toUserRegisteredEvent(user, request));
+        });
 
+        CreateUserProfileResponse profileResponse = tryCreateUserProfile(user, request);
+        if (profileResponse == null) {
+            return getAuthResponse(response, user, request.username(), "");
+        }
         return getAuthResponse(response, user, profileResponse.getUsername(), profileResponse.getAvatarKey());
     }
 
     @Override
-    @Transactional
     public AuthResponse login(LoginRequest request, HttpServletResponse response) {
         var authToken = new UsernamePasswordAuthenticationToken(request.email(), request.password());
         authenticationManager.authenticate(authToken);
@@ -73,9 +79,20 @@ public class AuthServiceImpl implements AuthService {
         GetUserProfileInfoRequest profileRequest = GetUserProfileInfoRequest.newBuilder()
                 .setUserId(String.valueOf(user.getId()))
                 .build();
-        GetUserProfileInfoResponse profileResponse = userProfileServiceGrpcClient.getUserProfileInfo(profileRequest);
+        CompletableFuture<GetUserProfileInfoResponse> profileFuture =
+                userProfileServiceGrpcClient.getUserProfileInfoAsync(profileRequest);
 
-        return getAuthResponse(response, user, profileResponse.getUsername(), profileResponse.getAvatarKey());
+        String accessToken = jwtService.generateAccessToken(user);
+        String refreshToken = jwtService.generateRefreshToken(user.getEmail(), user.getId().toString());
+        GetUserProfileInfoResponse profileResponse = awaitProfile(profileFuture);
+
+        cookieUtils.addRefreshTokenCookie(response, refreshToken);
+
+        return new AuthResponse(
+                accessToken,
+                user.getRole().name(),
+                new AuthResponse.Profile(profileResponse.getUsername(), profileResponse.getAvatarKey())
+        );
     }
 
     @Override
@@ -86,17 +103,23 @@ public class AuthServiceImpl implements AuthService {
             throw new BusinessException(ErrorCode.REFRESH_TOKEN_MISSED);
         }
 
-        String accessToken = jwtService.refreshAccessToken(refreshToken);
-
-        UUID userId = UUID.fromString(jwtService.extractUserId(accessToken));
+        VerifiedToken verifiedRefreshToken = jwtService.verify(refreshToken);
+        UUID userId = UUID.fromString(verifiedRefreshToken.userId());
 
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND));
+        if (!user.isEnabled()) {
+            throw new BusinessException(ErrorCode.ERR_USER_DISABLED);
+        }
 
         GetUserProfileInfoRequest profileRequest = GetUserProfileInfoRequest.newBuilder()
                 .setUserId(userId.toString())
                 .build();
-        GetUserProfileInfoResponse profileResponse = userProfileServiceGrpcClient.getUserProfileInfo(profileRequest);
+        CompletableFuture<GetUserProfileInfoResponse> profileFuture =
+                userProfileServiceGrpcClient.getUserProfileInfoAsync(profileRequest);
+
+        String accessToken = jwtService.refreshAccessToken(verifiedRefreshToken, user);
+        GetUserProfileInfoResponse profileResponse = awaitProfile(profileFuture);
 
         return new AuthResponse(
                 accessToken,
@@ -135,10 +158,15 @@ public class AuthServiceImpl implements AuthService {
         String actualToken = token != null && token.startsWith("Bearer ") ?
                 token.substring(7) : token;
 
-        if (actualToken != null && jwtService.isTokenValid(actualToken, jwtService.extractEmail(actualToken))) {
-            return jwtService.extractUserId(actualToken);
+        if (actualToken == null || actualToken.isEmpty()) {
+            throw new BusinessException(ErrorCode.INVALID_TOKEN);
+        }
+
+        try {
+            return jwtService.verify(actualToken).userId();
+        } catch (RuntimeException ex) {
+            throw new BusinessException(ErrorCode.INVALID_TOKEN);
         }
-        throw new BusinessException(ErrorCode.INVALID_TOKEN);
     }
 
     private void checkPasswords(String password, String confirmPassword) {
@@ -148,7 +176,7 @@ public class AuthServiceImpl implements AuthService {
     }
 
     private AuthResponse getAuthResponse(HttpServletResponse response, User user, String username, String avatarKey) {
-        String accessToken = jwtService.generateAccessToken(user.getEmail(), user.getId().toString());
+        String accessToken = jwtService.generateAccessToken(user);
         String refreshToken = jwtService.generateRefreshToken(user.getEmail(), user.getId().toString());
 
         cookieUtils.addRefreshTokenCookie(response, refreshToken);
@@ -160,6 +188,46 @@ public class AuthServiceImpl implements AuthService {
         );
     }
 
+    private UserRegisteredEvent toUserRegisteredEvent(User user, RegistrationRequest request) {
+        return new UserRegisteredEvent(
+                user.getId().toString(),
+                request.username(),
+                request.phoneNumber(),
+                request.dateOfBirth().format(DATE_OF_BIRTH_FORMAT),
+                request.genderId()
+        );
+    }
+
+    // the outbox guarantees the profile is created eventually, this call only makes it available right away
+    private CreateUserProfileResponse tryCreateUserProfile(User user, RegistrationRequest request) {
+        CreateUserProfileRequest userProfileRequest = CreateUserProfileRequest.newBuilder()
+                .setUsername(request.username())
+                .setPhoneNumber(request.phoneNumber())
+                .setDateOfBirth(request.dateOfBirth().format(DATE_OF_BIRTH_FORMAT))
+                .setGenderId(request.genderId())
+                .setAvatarKey("")
+                .setUserId(String.valueOf(user.getId()))
+                .build();
+
+        try {
+            return userProfileServiceGrpcClient.createUserProfile(userProfileRequest);
+        } catch (Exception e) {
+            log.warn("Failed to create user profile for {} synchronously, relying on outbox: {}", user.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private GetUserProfileInfoResponse awaitProfile(CompletableFuture<GetUserProfileInfoResponse> profileFuture) {
+        try {
+            return profileFuture.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
     private UUID extractUserIdFromAccessToken(HttpServletRequest request) {
         return jwtService.extractUserId(request);
     }
@@ -0,0 +1,87 @@
+package org.example.authservice.benchmark;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.example.authservice.security.JwtService;
+import org.example.authservice.security.KeyUtils;
+import org.example.authservice.security.VerifiedToken;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the legacy validation path (a fresh parser and RSA verify for every claim lookup,
+ * four per request) with a single verification through {@link JwtService#verify(String)}.
+ * <p>
+ * Run with: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.example.authservice.benchmark.JwtVerificationBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerificationBenchmark {
+    private JwtService jwtService;
+    private PublicKey publicKey;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        KeyPairGenerator keyGen = KeyPairGenerator.getInstance("RSA");
+        keyGen.initialize(2048);
+        KeyPair keyPair = keyGen.generateKeyPair();
+        publicKey = keyPair.getPublic();
+
+        String secret = "{\"privateKey\":\"" + Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded())
+                + "\",\"publicKey\":\"" + Base64.getEncoder().encodeToString(publicKey.getEncoded()) + "\"}";
+        KeyUtils keyUtils = new KeyUtils(() -> secret, 3_600_000);
+        keyUtils.loadKeys();
+
+        jwtService = new JwtService(keyUtils);
+        ReflectionTestUtils.setField(jwtService, "accessTokenExpiration", 3600L);
+        ReflectionTestUtils.setField(jwtService, "refreshTokenExpiration", 3600L);
+
+        token = jwtService.generateAccessToken("user@example.com", "123");
+    }
+
+    @Benchmark
+    public String legacyFourVerifications() {
+        String email = legacyClaims().getSubject();
+        boolean valid = legacyClaims().getSubject().equals(email)
+                && legacyClaims().getExpiration().toInstant().isAfter(Instant.now());
+        return valid ? legacyClaims().get("user_id", String.class) : null;
+    }
+
+    @Benchmark
+    public String verifyOnce() {
+        VerifiedToken verifiedToken = jwtService.verify(token);
+        return verifiedToken.userId();
+    }
+
+    private Claims legacyClaims() {
+        return Jwts.parser()
+                .verifyWith(publicKey)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
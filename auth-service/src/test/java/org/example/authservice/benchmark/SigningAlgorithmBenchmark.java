@@ -0,0 +1,87 @@
+package org.example.authservice.benchmark;
+
+import org.example.authservice.security.JwtService;
+import org.example.authservice.security.KeyUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sign and verify throughput of access tokens for each supported signing algorithm.
+ * The encoded token size is printed once per algorithm during setup.
+ * <p>
+ * Run with: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.example.authservice.benchmark.SigningAlgorithmBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SigningAlgorithmBenchmark {
+    @Param({"RS256", "ES256", "EdDSA"})
+    private String algorithm;
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        KeyPair keyPair = generateKeyPair(algorithm);
+
+        String secret = "{\"privateKey\":\"" + Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded())
+                + "\",\"publicKey\":\"" + Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()) + "\"}";
+        KeyUtils keyUtils = new KeyUtils(() -> secret, 3_600_000);
+        keyUtils.loadKeys();
+
+        jwtService = new JwtService(keyUtils);
+        ReflectionTestUtils.setField(jwtService, "accessTokenExpiration", 3600L);
+        ReflectionTestUtils.setField(jwtService, "refreshTokenExpiration", 3600L);
+
+        token = jwtService.generateAccessToken("user@example.com", "6f1c2b7e-3a55-4d1e-9f8a-0b7c2d4e5f60");
+        System.out.printf("%n%s access token size: %d bytes%n", algorithm, token.length());
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtService.generateAccessToken("user@example.com", "6f1c2b7e-3a55-4d1e-9f8a-0b7c2d4e5f60");
+    }
+
+    @Benchmark
+    public String verify() {
+        return jwtService.verify(token).userId();
+    }
+
+    private static KeyPair generateKeyPair(String algorithm) throws Exception {
+        return switch (algorithm) {
+            case "ES256" -> {
+                KeyPairGenerator keyGen = KeyPairGenerator.getInstance("EC");
+                keyGen.initialize(new ECGenParameterSpec("secp256r1"));
+                yield keyGen.generateKeyPair();
+            }
+            case "EdDSA" -> KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+            default -> {
+                KeyPairGenerator keyGen = KeyPairGenerator.getInstance("RSA");
+                keyGen.initialize(2048);
+                yield keyGen.generateKeyPair();
+            }
+        };
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SigningAlgorithmBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
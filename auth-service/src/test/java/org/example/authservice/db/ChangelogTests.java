@@ -0,0 +1,32 @@
+package org.example.authservice.db;
+
+import liquibase.changelog.ChangeLogParameters;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.parser.ChangeLogParserFactory;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangelogTests {
+    private static final String MASTER_CHANGELOG = "db/changelog/db.changelog-master.yaml";
+
+    @Test
+    void givenMasterChangelog_whenParse_thenIncludesEveryChangeSetInOrder() throws Exception {
+        try (ClassLoaderResourceAccessor resourceAccessor = new ClassLoaderResourceAccessor()) {
+            DatabaseChangeLog changeLog = ChangeLogParserFactory.getInstance()
+                    .getParser(MASTER_CHANGELOG, resourceAccessor)
+                    .parse(MASTER_CHANGELOG, new ChangeLogParameters(), resourceAccessor);
+
+            List<String> ids = changeLog.getChangeSets().stream()
+                    .map(ChangeSet::getId)
+                    .toList();
+
+            assertFalse(ids.isEmpty());
+            assertEquals("005-create-outbox-events", ids.getLast());
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package org.example.authservice.grpc;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.authservice.config.GrpcClientConfig;
+import org.example.authservice.dto.error.ErrorCode;
+import org.example.authservice.exception.BusinessException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import user.profile.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserProfileServiceGrpcClientTests {
+
+    private FakeUserProfileService service;
+    private SimpleMeterRegistry meterRegistry;
+    private Server server;
+    private ManagedChannel channel;
+    private UserProfileInfoCache cache;
+    private UserProfileServiceGrpcClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String serverName = InProcessServerBuilder.generateName();
+        service = new FakeUserProfileService();
+        meterRegistry = new SimpleMeterRegistry();
+
+        server = InProcessServerBuilder.forName(serverName)
+                .addService(service)
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(serverName)
+                .defaultServiceConfig(GrpcClientConfig.userProfileServiceConfig(3))
+                .enableRetry()
+                .intercept(new GrpcClientMetricsInterceptor(meterRegistry))
+                .build();
+        cache = new UserProfileInfoCache(meterRegistry, 60_000, 100);
+        client = new UserProfileServiceGrpcClient(channel, cache, 1000, 1000, 500);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        channel.shutdownNow().awaitTermination(1, TimeUnit.SECONDS);
+        server.shutdownNow().awaitTermination(1, TimeUnit.SECONDS);
+    }
+
+    // region: getUserProfileInfo
+    @Test
+    void givenRunningServer_whenGetUserProfileInfoAsync_thenCompletesWithResponse() {
+        CompletableFuture<GetUserProfileInfoResponse> future = client.getUserProfileInfoAsync(request());
+
+        GetUserProfileInfoResponse response = future.join();
+
+        assertEquals("john_doe", response.getUsername());
+        assertEquals(1, meterRegistry.get("grpc.client.requests")
+                .tag("method", "UserProfileService/GetUserProfileInfo")
+                .tag("status", "OK")
+                .timer()
+                .count());
+    }
+
+    @Test
+    void givenTransientUnavailability_whenGetUserProfileInfo_thenRetriesAndSucceeds() {
+        service.failuresBeforeSuccess.set(2);
+
+        GetUserProfileInfoResponse response = client.getUserProfileInfo(request());
+
+        assertEquals("john_doe", response.getUsername());
+        assertEquals(3, service.getProfileInfoCalls.get());
+    }
+
+    @Test
+    void givenSlowServer_whenGetUserProfileInfoAsync_thenFailsWithUnavailableAfterDeadline() {
+        service.delayMillis = 1000;
+
+        CompletionException ex = assertThrows(CompletionException.class,
+                () -> client.getUserProfileInfoAsync(request()).join());
+
+        BusinessException cause = assertInstanceOf(BusinessException.class, ex.getCause());
+        assertEquals(ErrorCode.USER_PROFILE_SERVICE_UNAVAILABLE, cause.getErrorCode());
+    }
+    @Test
+    void givenCachedProfile_whenGetUserProfileInfoAsync_thenSkipsRemoteCall() {
+        client.getUserProfileInfoAsync(request()).join();
+
+        GetUserProfileInfoResponse response = client.getUserProfileInfoAsync(request()).join();
+
+        assertEquals("john_doe", response.getUsername());
+        assertEquals(1, service.getProfileInfoCalls.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tag("cache", "userProfileInfo")
+                .tag("result", "hit")
+                .functionCounter()
+                .count());
+    }
+
+    @Test
+    void givenInvalidatedProfile_whenGetUserProfileInfoAsync_thenFetchesAgain() {
+        client.getUserProfileInfoAsync(request()).join();
+
+        cache.invalidate("user-1");
+        client.getUserProfileInfoAsync(request()).join();
+
+        assertEquals(2, service.getProfileInfoCalls.get());
+    }
+
+    @Test
+    void givenFailedLookup_whenGetUserProfileInfoAsyncAgain_thenFailureIsNotCached() {
+        service.failuresBeforeSuccess.set(3);
+        assertThrows(CompletionException.class, () -> client.getUserProfileInfoAsync(request()).join());
+
+        GetUserProfileInfoResponse response = client.getUserProfileInfoAsync(request()).join();
+
+        assertEquals("john_doe", response.getUsername());
+    }
+    // endregion
+
+    // region: createUserProfile
+    @Test
+    void givenUnavailableServer_whenCreateUserProfile_thenDoesNotRetry() {
+        service.failuresBeforeSuccess.set(1);
+
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> client.createUserProfile(CreateUserProfileRequest.newBuilder().setUserId("user-1").build()));
+
+        assertEquals(ErrorCode.USER_PROFILE_SERVICE_UNAVAILABLE, ex.getErrorCode());
+        assertEquals(1, service.createProfileCalls.get());
+    }
+    // endregion
+
+    private static GetUserProfileInfoRequest request() {
+        return GetUserProfileInfoRequest.newBuilder().setUserId("user-1").build();
+    }
+
+    private static class FakeUserProfileService extends UserProfileServiceGrpc.UserProfileServiceImplBase {
+        private final AtomicInteger failuresBeforeSuccess = new AtomicInteger();
+        private final AtomicInteger getProfileInfoCalls = new AtomicInteger();
+        private final AtomicInteger createProfileCalls = new AtomicInteger();
+        private volatile long delayMillis;
+
+        @Override
+        public void getUserProfileInfo(GetUserProfileInfoRequest request,
+                                       StreamObserver<GetUserProfileInfoResponse> responseObserver) {
+            getProfileInfoCalls.incrementAndGet();
+            if (failuresBeforeSuccess.getAndDecrement() > 0) {
+                responseObserver.onError(Status.UNAVAILABLE.asRuntimeException());
+                return;
+            }
+            sleep(delayMillis);
+            responseObserver.onNext(GetUserProfileInfoResponse.newBuilder()
+                    .setUsername("john_doe")
+                    .setAvatarKey("avatar.png")
+                    .build());
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public void createUserProfile(CreateUserProfileRequest request,
+                                      StreamObserver<CreateUserProfileResponse> responseObserver) {
+            createProfileCalls.incrementAndGet();
+            if (failuresBeforeSuccess.getAndDecrement() > 0) {
+                responseObserver.onError(Status.UNAVAILABLE.asRuntimeException());
+                return;
+            }
+            responseObserver.onNext(CreateUserProfileResponse.newBuilder().setUsername("john_doe").build());
+            responseObserver.onCompleted();
+        }
+
+        private static void sleep(long millis) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -9,11 +9,16 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 
+import java.time.Instant;
 import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -26,6 +31,9 @@ class JwtFilterTests {
     @Mock
     private UserDetailsService userDetailsService;
 
+    @Mock
+    private UserStateCache userStateCache;
+
     @Mock
     private FilterChain filterChain;
 
@@ -42,7 +50,7 @@ class JwtFilterTests {
     @BeforeEach
     void setUp() {
         mocks = MockitoAnnotations.openMocks(this);
-        jwtFilter = new JwtFilter(jwtService, userDetailsService);
+        jwtFilter = new JwtFilter(jwtService, userDetailsService, userStateCache);
         SecurityContextHolder.clearContext();
     }
 
@@ -88,7 +96,7 @@ class JwtFilterTests {
     void whenEmailIsNull_thenFilterChainCalledAndNoAuthenticationSet() throws Exception {
         when(request.getServletPath()).thenReturn("/api/data");
         when(request.getHeader("Authorization")).thenReturn("Bearer token");
-        when(jwtService.extractEmail("token")).thenReturn(null);
+        when(jwtService.verify("token")).thenReturn(verifiedToken(null));
 
         jwtFilter.doFilterInternal(request, response, filterChain);
 
@@ -100,7 +108,7 @@ class JwtFilterTests {
     void whenAuthenticationAlreadySet_thenFilterChainCalledAndNoChange() throws Exception {
         when(request.getServletPath()).thenReturn("/api/data");
         when(request.getHeader("Authorization")).thenReturn("Bearer token");
-        when(jwtService.extractEmail("token")).thenReturn("user@example.com");
+        when(jwtService.verify("token")).thenReturn(verifiedToken("user@example.com"));
 
         UsernamePasswordAuthenticationToken existingAuth =
                 new UsernamePasswordAuthenticationToken("user@example.com", null, null);
@@ -116,8 +124,7 @@ class JwtFilterTests {
     void whenTokenInvalid_thenFilterChainCalledAndNoAuthenticationSet() throws Exception {
         when(request.getServletPath()).thenReturn("/api/data");
         when(request.getHeader("Authorization")).thenReturn("Bearer token");
-        when(jwtService.extractEmail("token")).thenReturn("user@example.com");
-        when(jwtService.isTokenValid("token", "user@example.com")).thenReturn(false);
+        when(jwtService.verify("token")).thenThrow(new RuntimeException("Invalid JWT token"));
 
         jwtFilter.doFilterInternal(request, response, filterChain);
 
@@ -129,8 +136,7 @@ class JwtFilterTests {
     void whenValidToken_thenAuthenticationIsSetAndFilterChainCalled() throws Exception {
         when(request.getServletPath()).thenReturn("/api/data");
         when(request.getHeader("Authorization")).thenReturn("Bearer token");
-        when(jwtService.extractEmail("token")).thenReturn("user@example.com");
-        when(jwtService.isTokenValid("token", "user@example.com")).thenReturn(true);
+        when(jwtService.verify("token")).thenReturn(verifiedToken("user@example.com"));
 
         UserDetails userDetails = mock(UserDetails.class);
         when(userDetails.getAuthorities()).thenReturn(Collections.emptyList());
@@ -145,13 +151,15 @@ class JwtFilterTests {
         assertEquals("user@example.com", authentication.getPrincipal());
         assertNull(authentication.getCredentials());
         assertEquals(Collections.emptyList(), authentication.getAuthorities());
+        verify(jwtService, times(1)).verify("token");
+        verifyNoMoreInteractions(jwtService);
     }
 
     @Test
-    void whenJwtServiceThrowsExceptionDuringExtractEmail_thenFilterChainCalledAndNoAuthenticationSet() throws Exception {
+    void whenJwtServiceThrowsExceptionDuringVerify_thenFilterChainCalledAndNoAuthenticationSet() throws Exception {
         when(request.getServletPath()).thenReturn("/api/data");
         when(request.getHeader("Authorization")).thenReturn("Bearer token");
-        when(jwtService.extractEmail("token")).thenThrow(new RuntimeException("JWT parsing error"));
+        when(jwtService.verify("token")).thenThrow(new RuntimeException("JWT parsing error"));
 
         jwtFilter.doFilterInternal(request, response, filterChain);
 
@@ -163,8 +171,7 @@ class JwtFilterTests {
     void whenUserDetailsServiceThrowsException_thenFilterChainCalledAndNoAuthenticationSet() throws Exception {
         when(request.getServletPath()).thenReturn("/api/data");
         when(request.getHeader("Authorization")).thenReturn("Bearer token");
-        when(jwtService.extractEmail("token")).thenReturn("user@example.com");
-        when(jwtService.isTokenValid("token", "user@example.com")).thenReturn(true);
+        when(jwtService.verify("token")).thenReturn(verifiedToken("user@example.com"));
         when(userDetailsService.loadUserByUsername("user@example.com")).thenThrow(new RuntimeException("User not found"));
 
         jwtFilter.doFilterInternal(request, response, filterChain);
@@ -177,8 +184,7 @@ class JwtFilterTests {
     void whenAuthoritiesIsNull_thenAuthenticationAuthoritiesIsEmpty() throws Exception {
         when(request.getServletPath()).thenReturn("/api/data");
         when(request.getHeader("Authorization")).thenReturn("Bearer token");
-        when(jwtService.extractEmail("token")).thenReturn("user@example.com");
-        when(jwtService.isTokenValid("token", "user@example.com")).thenReturn(true);
+        when(jwtService.verify("token")).thenReturn(verifiedToken("user@example.com"));
 
         UserDetails userDetails = mock(UserDetails.class);
         when(userDetails.getAuthorities()).thenReturn(null);
@@ -194,4 +200,75 @@ class JwtFilterTests {
         assertNull(authentication.getCredentials());
         assertNotNull(authentication.getAuthorities());
     }
+
+    @Test
+    void whenTokenCarriesRoleClaims_thenAuthenticationBuiltWithoutUserLookup() throws Exception {
+        when(request.getServletPath()).thenReturn("/api/data");
+        when(request.getHeader("Authorization")).thenReturn("Bearer token");
+        when(jwtService.verify("token")).thenReturn(verifiedToken("user@example.com", "MANAGER", true));
+
+        jwtFilter.doFilterInternal(request, response, filterChain);
+
+        verify(filterChain).doFilter(request, response);
+        verifyNoInteractions(userDetailsService);
+
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        assertEquals("user@example.com", authentication.getPrincipal());
+        assertEquals(List.of(new SimpleGrantedAuthority("MANAGER")), authentication.getAuthorities());
+    }
+
+    @Test
+    void whenTokenMarksUserDisabled_thenNoAuthenticationSet() throws Exception {
+        when(request.getServletPath()).thenReturn("/api/data");
+        when(request.getHeader("Authorization")).thenReturn("Bearer token");
+        when(jwtService.verify("token")).thenReturn(verifiedToken("user@example.com", "USER", false));
+
+        jwtFilter.doFilterInternal(request, response, filterChain);
+
+        verify(filterChain).doFilter(request, response);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void whenUserStateCacheEnabledAndUserDisabled_thenNoAuthenticationSet() throws Exception {
+        UUID userId = UUID.randomUUID();
+        when(request.getServletPath()).thenReturn("/api/data");
+        when(request.getHeader("Authorization")).thenReturn("Bearer token");
+        when(jwtService.verify("token")).thenReturn(new VerifiedToken("user@example.com", userId.toString(),
+                "access_token", "USER", true, Instant.now().plusSeconds(60)));
+        when(userStateCache.isEnabled()).thenReturn(true);
+        when(userStateCache.get(userId)).thenReturn(Optional.of(new UserStateCache.UserState("USER", false)));
+
+        jwtFilter.doFilterInternal(request, response, filterChain);
+
+        verify(filterChain).doFilter(request, response);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void whenUserStateCacheEnabled_thenAuthoritiesTakenFromCachedState() throws Exception {
+        UUID userId = UUID.randomUUID();
+        when(request.getServletPath()).thenReturn("/api/data");
+        when(request.getHeader("Authorization")).thenReturn("Bearer token");
+        when(jwtService.verify("token")).thenReturn(new VerifiedToken("user@example.com", userId.toString(),
+                "access_token", "USER", true, Instant.now().plusSeconds(60)));
+        when(userStateCache.isEnabled()).thenReturn(true);
+        when(userStateCache.get(userId)).thenReturn(Optional.of(new UserStateCache.UserState("MANAGER", true)));
+
+        jwtFilter.doFilterInternal(request, response, filterChain);
+
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        assertEquals(List.of(new SimpleGrantedAuthority("MANAGER")), authentication.getAuthorities());
+        verifyNoInteractions(userDetailsService);
+    }
+
+    private static VerifiedToken verifiedToken(String email) {
+        return verifiedToken(email, null, null);
+    }
+
+    private static VerifiedToken verifiedToken(String email, String role, Boolean enabled) {
+        return new VerifiedToken(email, "123", "access_token", role, enabled, Instant.now().plusSeconds(60));
+    }
 }
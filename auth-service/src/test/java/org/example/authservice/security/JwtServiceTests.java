@@ -1,5 +1,7 @@
 package org.example.authservice.security;
 
+import org.example.authservice.model.Role;
+import org.example.authservice.model.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -8,7 +10,10 @@ import java.security.KeyPair;
 import java.security.KeyPairGenerator;
 import java.security.PrivateKey;
 import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
 import java.time.Duration;
+import java.util.Base64;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -29,15 +34,13 @@ class JwtServiceTests {
         publicKey = keyPair.getPublic();
 
         keyUtils = mock(KeyUtils.class);
-        when(keyUtils.getPrivateKey()).thenReturn(privateKey);
-        when(keyUtils.getPublicKey()).thenReturn(publicKey);
+        when(keyUtils.getSigningKey()).thenReturn(new SigningKey("key-1", SigningAlgorithm.RS256, privateKey));
+        when(keyUtils.getPublicKey("key-1")).thenReturn(publicKey);
 
         jwtService = new JwtService(keyUtils);
 
         setField(jwtService, "accessTokenExpiration", Duration.ofSeconds(2).getSeconds());
         setField(jwtService, "refreshTokenExpiration", Duration.ofSeconds(4).getSeconds());
-
-        jwtService.initKeys();
     }
 
     // region: Access Token Tests
@@ -52,6 +55,23 @@ class JwtServiceTests {
         assertEquals("user@example.com", jwtService.extractEmail(token));
     }
 
+    @Test
+    void givenUser_whenGenerateAccessToken_thenShouldContainRoleAndEnabledClaims() {
+        User user = User.builder()
+                .id(UUID.randomUUID())
+                .email("user@example.com")
+                .role(Role.MANAGER)
+                .enabled(true)
+                .build();
+
+        VerifiedToken verifiedToken = jwtService.verify(jwtService.generateAccessToken(user));
+
+        assertEquals(user.getId().toString(), verifiedToken.userId());
+        assertEquals("MANAGER", verifiedToken.role());
+        assertTrue(verifiedToken.enabled());
+        assertTrue(verifiedToken.hasAuthorityClaims());
+    }
+
     @Test
     void givenExpiredAccessToken_whenIsTokenValid_thenShouldReturnFalse() throws InterruptedException {
         String token = jwtService.generateAccessToken("user@example.com", "123");
@@ -159,6 +179,18 @@ class JwtServiceTests {
 
     // region: Token Validation Tests
 
+    @Test
+    void givenAccessToken_whenVerify_thenShouldExposeAllClaims() {
+        String token = jwtService.generateAccessToken("user@example.com", "123");
+
+        VerifiedToken verifiedToken = jwtService.verify(token);
+
+        assertEquals("user@example.com", verifiedToken.email());
+        assertEquals("123", verifiedToken.userId());
+        assertFalse(verifiedToken.isRefreshToken());
+        assertNotNull(verifiedToken.expiresAt());
+    }
+
     @Test
     void givenInvalidJwtString_whenIsTokenValid_thenShouldReturnFalse() {
         assertFalse(jwtService.isTokenValid("invalid.token.here", "user@example.com"));
@@ -177,6 +209,83 @@ class JwtServiceTests {
 
     // endregion
 
+
+    // region: Key Rotation Tests
+
+    @Test
+    void givenGeneratedToken_whenInspectHeader_thenShouldContainKeyId() {
+        String token = jwtService.generateAccessToken("user@example.com", "123");
+
+        String header = new String(Base64.getUrlDecoder().decode(token.split("\\.")[0]));
+
+        assertTrue(header.contains("\"kid\":\"key-1\""));
+    }
+
+    @Test
+    void givenTokenSignedWithPreviousKey_whenSigningKeyRotated_thenShouldStillBeValid() throws Exception {
+        String token = jwtService.generateAccessToken("user@example.com", "123");
+
+        KeyPairGenerator keyGen = KeyPairGenerator.getInstance("RSA");
+        keyGen.initialize(2048);
+        KeyPair rotated = keyGen.generateKeyPair();
+        when(keyUtils.getSigningKey()).thenReturn(new SigningKey("key-2", SigningAlgorithm.RS256, rotated.getPrivate()));
+        when(keyUtils.getPublicKey("key-2")).thenReturn(rotated.getPublic());
+
+        String rotatedToken = jwtService.generateAccessToken("user@example.com", "123");
+
+        assertTrue(jwtService.isTokenValid(token, "user@example.com"));
+        assertTrue(jwtService.isTokenValid(rotatedToken, "user@example.com"));
+    }
+
+    @Test
+    void givenUnknownKeyId_whenIsTokenValid_thenShouldReturnFalse() {
+        String token = jwtService.generateAccessToken("user@example.com", "123");
+        when(keyUtils.getPublicKey("key-1")).thenReturn(null);
+
+        assertFalse(jwtService.isTokenValid(token, "user@example.com"));
+    }
+
+    @Test
+    void givenEs256SigningKey_whenGenerateAccessToken_thenRsaTokensStillValid() throws Exception {
+        String rsaToken = jwtService.generateAccessToken("user@example.com", "123");
+        KeyPair ecKeyPair = generateKeyPair("EC");
+        when(keyUtils.getSigningKey()).thenReturn(new SigningKey("key-ec", SigningAlgorithm.ES256, ecKeyPair.getPrivate()));
+        when(keyUtils.getPublicKey("key-ec")).thenReturn(ecKeyPair.getPublic());
+
+        String ecToken = jwtService.generateAccessToken("user@example.com", "123");
+
+        assertTrue(header(ecToken).contains("\"alg\":\"ES256\""));
+        assertEquals("123", jwtService.extractUserId(ecToken));
+        assertTrue(jwtService.isTokenValid(rsaToken, "user@example.com"));
+        assertTrue(ecToken.length() < rsaToken.length());
+    }
+
+    @Test
+    void givenEdDsaSigningKey_whenGenerateAccessToken_thenShouldBeValid() throws Exception {
+        KeyPair edKeyPair = generateKeyPair("Ed25519");
+        when(keyUtils.getSigningKey()).thenReturn(new SigningKey("key-ed", SigningAlgorithm.EdDSA, edKeyPair.getPrivate()));
+        when(keyUtils.getPublicKey("key-ed")).thenReturn(edKeyPair.getPublic());
+
+        String token = jwtService.generateAccessToken("user@example.com", "123");
+
+        assertTrue(header(token).contains("\"alg\":\"EdDSA\""));
+        assertTrue(jwtService.isTokenValid(token, "user@example.com"));
+    }
+
+    // endregion
+
+    private static String header(String token) {
+        return new String(Base64.getUrlDecoder().decode(token.split("\\.")[0]));
+    }
+
+    private static KeyPair generateKeyPair(String algorithm) throws Exception {
+        KeyPairGenerator keyGen = KeyPairGenerator.getInstance(algorithm);
+        if ("EC".equals(algorithm)) {
+            keyGen.initialize(new ECGenParameterSpec("secp256r1"));
+        }
+        return keyGen.generateKeyPair();
+    }
+
     private static void setField(Object target, String fieldName, Object value) {
         try {
             Field field = target.getClass().getDeclaredField(fieldName);
@@ -2,21 +2,40 @@ package org.example.authservice.security;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
 import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
 import software.amazon.awssdk.services.secretsmanager.model.GetSecretValueRequest;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 class KeyUtilsTests {
+    private static final long REFRESH_TOKEN_EXPIRATION = 3_600_000;
+
     private KeyUtils keyUtils;
     private SecretsManagerClient secretsManagerClient;
 
+    @TempDir
+    Path tempDir;
+
     @BeforeEach
     void setUp() {
         secretsManagerClient = mock(SecretsManagerClient.class);
-        keyUtils = new KeyUtils(secretsManagerClient);
+        keyUtils = new KeyUtils(new SecretsManagerKeySecretSource(secretsManagerClient, "auth-service/keys"),
+                REFRESH_TOKEN_EXPIRATION);
     }
 
     @Test
@@ -29,4 +48,219 @@ class KeyUtilsTests {
         RuntimeException ex = assertThrows(RuntimeException.class, keyUtils::loadKeys);
         assertTrue(ex.getMessage().contains("Failed to load keys"));
     }
+
+    // region: Key Ring Tests
+
+    @Test
+    void givenKeyFile_whenLoadKeys_thenSigningKeyPublishedWithKeyId() throws Exception {
+        // given
+        KeyPair keyPair = generateKeyPair();
+        Path file = writeSecret(keyPair, null);
+        KeyUtils fileKeyUtils = new KeyUtils(new FileKeySecretSource(file), REFRESH_TOKEN_EXPIRATION);
+
+        // when
+        fileKeyUtils.loadKeys();
+
+        // then
+        SigningKey signingKey = fileKeyUtils.getSigningKey();
+        assertNotNull(signingKey.keyId());
+        assertEquals(keyPair.getPublic(), fileKeyUtils.getPublicKey(signingKey.keyId()));
+        assertEquals(keyPair.getPublic(), fileKeyUtils.getPublicKey(null));
+
+        List<Map<String, Object>> jwks = fileKeyUtils.getJwks();
+        assertEquals(1, jwks.size());
+        assertEquals(signingKey.keyId(), jwks.get(0).get("kid"));
+        assertEquals("RSA", jwks.get(0).get("kty"));
+    }
+
+    @Test
+    void givenRotatedKeyFile_whenRefreshKeys_thenNewKeySignsAndPreviousKeyStillVerifies() throws Exception {
+        // given
+        KeyPair oldKeyPair = generateKeyPair();
+        KeyPair newKeyPair = generateKeyPair();
+        Path file = writeSecret(oldKeyPair, null);
+        KeyUtils fileKeyUtils = new KeyUtils(new FileKeySecretSource(file), REFRESH_TOKEN_EXPIRATION);
+        fileKeyUtils.loadKeys();
+        String oldKeyId = fileKeyUtils.getSigningKey().keyId();
+
+        // when
+        writeSecret(newKeyPair, oldKeyPair);
+        fileKeyUtils.refreshKeys();
+
+        // then
+        String newKeyId = fileKeyUtils.getSigningKey().keyId();
+        assertNotEquals(oldKeyId, newKeyId);
+        assertEquals(newKeyPair.getPrivate(), fileKeyUtils.getSigningKey().privateKey());
+        assertEquals(oldKeyPair.getPublic(), fileKeyUtils.getPublicKey(oldKeyId));
+        assertEquals(2, fileKeyUtils.getJwks().size());
+    }
+
+    @Test
+    void givenRotatedKeyFileWithoutPreviousKey_whenRefreshKeysTwice_thenPreviousKeyStillVerifies() throws Exception {
+        // given
+        KeyPair oldKeyPair = generateKeyPair();
+        KeyPair newKeyPair = generateKeyPair();
+        Path file = writeSecret(oldKeyPair, null);
+        KeyUtils fileKeyUtils = new KeyUtils(new FileKeySecretSource(file), REFRESH_TOKEN_EXPIRATION);
+        fileKeyUtils.loadKeys();
+        String oldKeyId = fileKeyUtils.getSigningKey().keyId();
+
+        // when
+        writeSecret(newKeyPair, null);
+        fileKeyUtils.refreshKeys();
+        fileKeyUtils.refreshKeys();
+
+        // then
+        assertEquals(newKeyPair.getPrivate(), fileKeyUtils.getSigningKey().privateKey());
+        assertEquals(oldKeyPair.getPublic(), fileKeyUtils.getPublicKey(oldKeyId));
+        assertEquals(2, fileKeyUtils.getJwks().size());
+    }
+
+    @Test
+    void givenPreviousKeyDroppedFromSecret_whenRefreshKeysTwice_thenPreviousKeyStillVerifies() throws Exception {
+        // given
+        KeyPair oldKeyPair = generateKeyPair();
+        KeyPair newKeyPair = generateKeyPair();
+        Path file = writeSecret(newKeyPair, oldKeyPair);
+        KeyUtils fileKeyUtils = new KeyUtils(new FileKeySecretSource(file), REFRESH_TOKEN_EXPIRATION);
+        fileKeyUtils.loadKeys();
+        String oldKeyId = fileKeyUtils.getJwks().get(1).get("kid").toString();
+
+        // when
+        writeSecret(newKeyPair, null);
+        fileKeyUtils.refreshKeys();
+        fileKeyUtils.refreshKeys();
+
+        // then
+        assertEquals(oldKeyPair.getPublic(), fileKeyUtils.getPublicKey(oldKeyId));
+    }
+
+    @Test
+    void givenRetentionPassed_whenRefreshKeysTwice_thenRetiredKeyDropped() throws Exception {
+        // given
+        KeyPair oldKeyPair = generateKeyPair();
+        KeyPair newKeyPair = generateKeyPair();
+        Path file = writeSecret(oldKeyPair, null);
+        KeyUtils fileKeyUtils = new KeyUtils(new FileKeySecretSource(file), 0);
+        fileKeyUtils.loadKeys();
+        String oldKeyId = fileKeyUtils.getSigningKey().keyId();
+
+        // when
+        writeSecret(newKeyPair, null);
+        fileKeyUtils.refreshKeys();
+        PublicKey afterRotation = fileKeyUtils.getPublicKey(oldKeyId);
+        fileKeyUtils.refreshKeys();
+
+        // then
+        assertEquals(oldKeyPair.getPublic(), afterRotation);
+        assertNull(fileKeyUtils.getPublicKey(oldKeyId));
+        assertEquals(1, fileKeyUtils.getJwks().size());
+    }
+
+    @Test
+    void givenRefreshTokenSignedByRetiredKey_whenRefreshKeysJustBeforeExpiry_thenTokenStillVerifies() throws Exception {
+        // given
+        KeyPair oldKeyPair = generateKeyPair();
+        KeyPair newKeyPair = generateKeyPair();
+        Path file = writeSecret(oldKeyPair, null);
+        Clock clock = mock(Clock.class);
+        when(clock.instant()).thenReturn(Instant.now());
+        KeyUtils fileKeyUtils = new KeyUtils(new FileKeySecretSource(file), REFRESH_TOKEN_EXPIRATION, clock);
+        fileKeyUtils.loadKeys();
+        JwtService jwtService = new JwtService(fileKeyUtils);
+        ReflectionTestUtils.setField(jwtService, "refreshTokenExpiration", REFRESH_TOKEN_EXPIRATION);
+        String refreshToken = jwtService.generateRefreshToken("user@example.com", "123");
+        Instant expiresAt = jwtService.verify(refreshToken).expiresAt();
+
+        writeSecret(newKeyPair, null);
+        fileKeyUtils.refreshKeys();
+
+        // when
+        when(clock.instant()).thenReturn(expiresAt.minusSeconds(60));
+        fileKeyUtils.refreshKeys();
+
+        // then
+        assertEquals(newKeyPair.getPrivate(), fileKeyUtils.getSigningKey().privateKey());
+        assertEquals("123", jwtService.verify(refreshToken).userId());
+
+        when(clock.instant()).thenReturn(expiresAt.plusSeconds(60));
+        fileKeyUtils.refreshKeys();
+        assertEquals(1, fileKeyUtils.getJwks().size());
+    }
+
+    @Test
+    void givenUnreadableKeyFile_whenRefreshKeys_thenCurrentKeysKept() throws Exception {
+        // given
+        KeyPair keyPair = generateKeyPair();
+        Path file = writeSecret(keyPair, null);
+        KeyUtils fileKeyUtils = new KeyUtils(new FileKeySecretSource(file), REFRESH_TOKEN_EXPIRATION);
+        fileKeyUtils.loadKeys();
+        String keyId = fileKeyUtils.getSigningKey().keyId();
+
+        // when
+        Files.writeString(file, "not json");
+        fileKeyUtils.refreshKeys();
+
+        // then
+        assertEquals(keyId, fileKeyUtils.getSigningKey().keyId());
+    }
+
+    @Test
+    void givenEcKeyFile_whenLoadKeys_thenEs256KeyPublishedAsEcJwk() throws Exception {
+        // given
+        KeyPairGenerator keyGen = KeyPairGenerator.getInstance("EC");
+        keyGen.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair ecKeyPair = keyGen.generateKeyPair();
+        KeyPair rsaKeyPair = generateKeyPair();
+        KeyUtils fileKeyUtils = new KeyUtils(new FileKeySecretSource(writeSecret(ecKeyPair, rsaKeyPair)), REFRESH_TOKEN_EXPIRATION);
+
+        // when
+        fileKeyUtils.loadKeys();
+
+        // then
+        assertEquals(SigningAlgorithm.ES256, fileKeyUtils.getSigningKey().algorithm());
+        Map<String, Object> jwk = fileKeyUtils.getJwks().get(0);
+        assertEquals("EC", jwk.get("kty"));
+        assertEquals("P-256", jwk.get("crv"));
+        assertEquals("ES256", jwk.get("alg"));
+        assertEquals("RS256", fileKeyUtils.getJwks().get(1).get("alg"));
+    }
+
+    @Test
+    void givenEd25519KeyFile_whenLoadKeys_thenEdDsaKeyPublishedAsOkpJwk() throws Exception {
+        // given
+        KeyPair edKeyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        KeyUtils fileKeyUtils = new KeyUtils(new FileKeySecretSource(writeSecret(edKeyPair, null)), REFRESH_TOKEN_EXPIRATION);
+
+        // when
+        fileKeyUtils.loadKeys();
+
+        // then
+        assertEquals(SigningAlgorithm.EdDSA, fileKeyUtils.getSigningKey().algorithm());
+        Map<String, Object> jwk = fileKeyUtils.getJwks().get(0);
+        assertEquals("OKP", jwk.get("kty"));
+        assertEquals("Ed25519", jwk.get("crv"));
+        assertEquals(43, ((String) jwk.get("x")).length());
+    }
+
+    // endregion
+
+    private Path writeSecret(KeyPair keyPair, KeyPair previousKeyPair) throws Exception {
+        Path file = tempDir.resolve("keys.json");
+        String previous = previousKeyPair == null ? "" :
+                ",\"previousPublicKey\":\"" + pem("PUBLIC KEY", previousKeyPair.getPublic().getEncoded()) + "\"";
+        Files.writeString(file, "{\"privateKey\":\"" + pem("PRIVATE KEY", keyPair.getPrivate().getEncoded())
+                + "\",\"publicKey\":\"" + pem("PUBLIC KEY", keyPair.getPublic().getEncoded()) + "\"" + previous + "}");
+        return file;
+    }
+
+    private static String pem(String type, byte[] encoded) {
+        return "-----BEGIN " + type + "-----" + Base64.getEncoder().encodeToString(encoded) + "-----END " + type + "-----";
+    }
+
+    private static KeyPair generateKeyPair() throws Exception {
+        KeyPairGenerator keyGen = KeyPairGenerator.getInstance("RSA");
+        keyGen.initialize(2048);
+        return keyGen.generateKeyPair();
+    }
 }
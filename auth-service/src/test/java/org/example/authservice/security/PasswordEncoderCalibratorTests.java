@@ -0,0 +1,79 @@
+package org.example.authservice.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordEncoderCalibratorTests {
+
+    // region: calibration
+    @Test
+    void givenFastHardware_whenBcryptStrength_thenRaisesStrengthUntilBudget() {
+        assertEquals(12, PasswordEncoderCalibrator.bcryptStrength(12, 50, 10, 14));
+    }
+
+    @Test
+    void givenSlowHardware_whenBcryptStrength_thenKeepsMinimumStrength() {
+        assertEquals(10, PasswordEncoderCalibrator.bcryptStrength(80, 50, 10, 14));
+    }
+
+    @Test
+    void givenVeryFastHardware_whenBcryptStrength_thenCapsAtMaximumStrength() {
+        assertEquals(14, PasswordEncoderCalibrator.bcryptStrength(1, 50, 10, 14));
+    }
+
+    @Test
+    void givenMeasuredArgon2Latency_whenArgon2Iterations_thenScalesLinearly() {
+        assertEquals(5, PasswordEncoderCalibrator.argon2Iterations(20, 50, 2, 10));
+        assertEquals(2, PasswordEncoderCalibrator.argon2Iterations(120, 50, 2, 10));
+        assertEquals(10, PasswordEncoderCalibrator.argon2Iterations(2, 50, 2, 10));
+    }
+    // endregion
+
+    // region: delegating encoder
+    @Test
+    void givenBcryptTarget_whenEncode_thenPrefixesHashWithId() {
+        PasswordEncoder encoder = calibrator("bcrypt").createPasswordEncoder();
+
+        String hash = encoder.encode("password");
+
+        assertTrue(hash.startsWith("{bcrypt}"));
+        assertTrue(encoder.matches("password", hash));
+        assertFalse(encoder.upgradeEncoding(hash));
+    }
+
+    @Test
+    void givenLegacyBcryptHash_whenMatches_thenAcceptsAndRequestsUpgrade() {
+        PasswordEncoder encoder = calibrator("bcrypt").createPasswordEncoder();
+        String legacyHash = new BCryptPasswordEncoder(4).encode("password");
+
+        assertTrue(encoder.matches("password", legacyHash));
+        assertTrue(encoder.upgradeEncoding(legacyHash));
+    }
+
+    @Test
+    void givenArgon2Target_whenBcryptHashPresented_thenMatchesAndRequestsUpgrade() {
+        PasswordEncoder encoder = calibrator("argon2").createPasswordEncoder();
+        String bcryptHash = "{bcrypt}" + new BCryptPasswordEncoder(4).encode("password");
+
+        String argon2Hash = encoder.encode("password");
+
+        assertTrue(argon2Hash.startsWith("{argon2}"));
+        assertTrue(encoder.matches("password", argon2Hash));
+        assertTrue(encoder.matches("password", bcryptHash));
+        assertTrue(encoder.upgradeEncoding(bcryptHash));
+        assertFalse(encoder.upgradeEncoding(argon2Hash));
+    }
+
+    @Test
+    void givenUnknownAlgorithm_whenCreateCalibrator_thenThrows() {
+        assertThrows(IllegalArgumentException.class, () -> calibrator("md5"));
+    }
+    // endregion
+
+    private static PasswordEncoderCalibrator calibrator(String algorithm) {
+        return new PasswordEncoderCalibrator(algorithm, 1, 4, 4, 1024, 1, 1, 1);
+    }
+}
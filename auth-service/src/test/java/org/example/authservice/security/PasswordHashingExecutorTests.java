@@ -0,0 +1,127 @@
+package org.example.authservice.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.authservice.dto.error.ErrorCode;
+import org.example.authservice.exception.BusinessException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingExecutorTests {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordHashingExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new PasswordHashingExecutor(meterRegistry, 1, 1, 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    // region: execute
+    @Test
+    void givenIdlePool_whenExecute_thenReturnsResultAndRecordsLatency() {
+        String result = executor.execute("encode", () -> "hash");
+
+        assertEquals("hash", result);
+        assertEquals(1, meterRegistry.get("auth.password.hashing.duration")
+                .tag("operation", "encode")
+                .timer()
+                .count());
+    }
+
+    @Test
+    void givenSaturatedPool_whenExecute_thenRejectsImmediately() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> executor.execute("matches", () -> {
+            started.countDown();
+            await(release);
+            return "running";
+        }));
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> executor.execute("matches", () -> "queued"));
+        waitForQueued();
+
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> executor.execute("matches", () -> "rejected"));
+
+        assertEquals(ErrorCode.PASSWORD_HASHING_OVERLOADED, ex.getErrorCode());
+        assertEquals(1.0, meterRegistry.get("auth.password.hashing.rejected").counter().count());
+
+        release.countDown();
+        assertEquals("running", running.get(1, TimeUnit.SECONDS));
+        assertEquals("queued", queued.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void givenSlowHash_whenTimeoutElapses_thenThrowsOverloaded() {
+        PasswordHashingExecutor slowExecutor = new PasswordHashingExecutor(meterRegistry, 1, 1, 50);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try {
+            BusinessException ex = assertThrows(BusinessException.class,
+                    () -> slowExecutor.execute("encode", () -> {
+                        await(release);
+                        return "hash";
+                    }));
+
+            assertEquals(ErrorCode.PASSWORD_HASHING_OVERLOADED, ex.getErrorCode());
+        } finally {
+            release.countDown();
+            slowExecutor.shutdown();
+        }
+    }
+
+    @Test
+    void givenTaskFailure_whenExecute_thenPropagatesOriginalException() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> executor.execute("encode", () -> {
+                    throw new IllegalArgumentException("rawPassword cannot be null");
+                }));
+
+        assertEquals("rawPassword cannot be null", ex.getMessage());
+    }
+    // endregion
+
+    // region: bounded encoder
+    @Test
+    void givenBoundedEncoder_whenEncodeAndMatch_thenDelegatesToBCrypt() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), executor);
+
+        String hash = encoder.encode("password");
+
+        assertTrue(encoder.matches("password", hash));
+        assertFalse(encoder.matches("wrong", hash));
+    }
+    // endregion
+
+    private void waitForQueued() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (meterRegistry.get("auth.password.hashing.queue.size").gauge().value() < 1
+                && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -9,26 +9,33 @@ import jakarta.validation.ValidatorFactory;
 import org.example.authservice.dto.auth.ChangePasswordRequest;
 import org.example.authservice.dto.auth.LoginRequest;
 import org.example.authservice.dto.auth.RegistrationRequest;
+import org.example.authservice.dto.error.ErrorCode;
+import org.example.authservice.event.UserRegisteredEvent;
 import org.example.authservice.exception.BusinessException;
 import org.example.authservice.grpc.UserProfileServiceGrpcClient;
 import org.example.authservice.mapper.UserMapper;
 import org.example.authservice.model.Role;
 import org.example.authservice.model.User;
+import org.example.authservice.outbox.OutboxWriter;
 import org.example.authservice.repository.UserRepository;
 import org.example.authservice.security.CookieUtils;
 import org.example.authservice.security.JwtService;
+import org.example.authservice.security.VerifiedToken;
 import org.example.authservice.service.impl.AuthServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionOperations;
 import user.profile.*;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -41,6 +48,7 @@ class AuthServiceImplTests {
     private PasswordEncoder passwordEncoder;
     private AuthenticationManager authenticationManager;
     private UserProfileServiceGrpcClient userProfileServiceGrpcClient;
+    private OutboxWriter outboxWriter;
 
     private AuthServiceImpl authService;
     private Validator validator;
@@ -54,6 +62,7 @@ class AuthServiceImplTests {
         passwordEncoder = mock(PasswordEncoder.class);
         authenticationManager = mock(AuthenticationManager.class);
         userProfileServiceGrpcClient = mock(UserProfileServiceGrpcClient.class);
+        outboxWriter = mock(OutboxWriter.class);
 
         authService = new AuthServiceImpl(
                 userMapper,
@@ -62,7 +71,9 @@ class AuthServiceImplTests {
                 userRepository,
                 passwordEncoder,
                 authenticationManager,
-                userProfileServiceGrpcClient
+                userProfileServiceGrpcClient,
+                outboxWriter,
+                TransactionOperations.withoutTransaction()
         );
 
         ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
@@ -98,7 +109,7 @@ class AuthServiceImplTests {
         when(userProfileServiceGrpcClient.checkPhoneNumber(any(CheckPhoneNumberRequest.class)))
                 .thenReturn(CheckPhoneNumberResponse.newBuilder().setIsUnique(true).build());
 
-        when(jwtService.generateAccessToken(any(), any())).thenReturn("access-token");
+        when(jwtService.generateAccessToken(any(User.class))).thenReturn("access-token");
         when(jwtService.generateRefreshToken(any(), any())).thenReturn("refresh-token");
 
         when(userProfileServiceGrpcClient.createUserProfile(any(CreateUserProfileRequest.class)))
@@ -110,6 +121,7 @@ class AuthServiceImplTests {
         var authResponse = authService.register(request, response);
 
         verify(userRepository).save(user);
+        verify(outboxWriter).enqueue(eq("user-registered-events"), eq(userId.toString()), any(UserRegisteredEvent.class));
         verify(cookieUtils).addRefreshTokenCookie(response, "refresh-token");
 
         assertEquals("access-token", authResponse.accessToken());
@@ -118,6 +130,41 @@ class AuthServiceImplTests {
         assertEquals("avatar.png", authResponse.profile().avatarKey());
     }
 
+    @Test
+    void givenUnavailableProfileService_whenRegister_thenStillRegistersThroughOutbox() {
+        RegistrationRequest request = new RegistrationRequest(
+                "john_doe",
+                "john@example.com",
+                "Password123!",
+                "Password123!",
+                "+380991234567",
+                LocalDate.of(2000, 10, 10),
+                0L
+        );
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        UUID userId = UUID.randomUUID();
+        User user = new User();
+        user.setId(userId);
+        user.setEmail(request.email());
+        user.setRole(Role.USER);
+
+        when(userMapper.toUser(request)).thenReturn(user);
+        when(jwtService.generateAccessToken(any(User.class))).thenReturn("access-token");
+        when(jwtService.generateRefreshToken(any(), any())).thenReturn("refresh-token");
+        when(userProfileServiceGrpcClient.createUserProfile(any(CreateUserProfileRequest.class)))
+                .thenThrow(new BusinessException(ErrorCode.USER_PROFILE_SERVICE_UNAVAILABLE));
+
+        var authResponse = authService.register(request, response);
+
+        verify(outboxWriter).enqueue(eq("user-registered-events"), eq(userId.toString()), argThat(event ->
+                event instanceof UserRegisteredEvent registered
+                        && registered.username().equals("john_doe")
+                        && registered.dateOfBirth().equals("2000-10-10")));
+        assertEquals("john_doe", authResponse.profile().username());
+        assertEquals("", authResponse.profile().avatarKey());
+    }
+
     // endregion
 
 
@@ -137,7 +184,7 @@ class AuthServiceImplTests {
 
         when(userRepository.findByEmailIgnoreCase(request.email())).thenReturn(Optional.of(user));
 
-        when(jwtService.generateAccessToken(any(), any())).thenReturn("access-token");
+        when(jwtService.generateAccessToken(any(User.class))).thenReturn("access-token");
         when(jwtService.generateRefreshToken(any(), any())).thenReturn("refresh-token");
 
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
@@ -147,7 +194,8 @@ class AuthServiceImplTests {
                 .setUsername("john_doe")
                 .setAvatarKey("avatar.png")
                 .build();
-        when(userProfileServiceGrpcClient.getUserProfileInfo(any())).thenReturn(profileResponse);
+        when(userProfileServiceGrpcClient.getUserProfileInfoAsync(any()))
+                .thenReturn(CompletableFuture.completedFuture(profileResponse));
 
         var authResponse = authService.login(request, response);
 
@@ -160,6 +208,29 @@ class AuthServiceImplTests {
         assertEquals("avatar.png", authResponse.profile().avatarKey());
     }
 
+    @Test
+    void givenUnavailableProfileService_whenLogin_thenThrowBusinessExceptionWithoutCookie() {
+        LoginRequest request = new LoginRequest("john@example.com", "Password123!");
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setEmail(request.email());
+        user.setRole(Role.USER);
+
+        when(userRepository.findByEmailIgnoreCase(request.email())).thenReturn(Optional.of(user));
+        when(jwtService.generateAccessToken(any(User.class))).thenReturn("access-token");
+        when(jwtService.generateRefreshToken(any(), any())).thenReturn("refresh-token");
+        when(userProfileServiceGrpcClient.getUserProfileInfoAsync(any()))
+                .thenReturn(CompletableFuture.failedFuture(
+                        new BusinessException(ErrorCode.USER_PROFILE_SERVICE_UNAVAILABLE)));
+
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> authService.login(request, response));
+        assertEquals(ErrorCode.USER_PROFILE_SERVICE_UNAVAILABLE, ex.getErrorCode());
+        verify(cookieUtils, never()).addRefreshTokenCookie(any(), any());
+    }
+
     @Test
     void givenNonExistingUser_whenLogin_thenThrowBusinessException() {
         LoginRequest request = new LoginRequest("john@example.com", "Password123!");
@@ -187,17 +258,20 @@ class AuthServiceImplTests {
         user.setId(userId);
         user.setRole(Role.USER);
         user.setEmail("test@example.com");
+        user.setEnabled(true);
 
         when(cookieUtils.getRefreshToken(request)).thenReturn("refresh-token");
-        when(jwtService.refreshAccessToken("refresh-token")).thenReturn("new-access-token");
-        when(jwtService.extractUserId("new-access-token")).thenReturn(userId.toString());
+        VerifiedToken verifiedRefreshToken = refreshToken(userId);
+        when(jwtService.verify("refresh-token")).thenReturn(verifiedRefreshToken);
+        when(jwtService.refreshAccessToken(verifiedRefreshToken, user)).thenReturn("new-access-token");
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
 
         GetUserProfileInfoResponse profileResponse = GetUserProfileInfoResponse.newBuilder()
                 .setUsername("testUser")
                 .setAvatarKey("avatar.png")
                 .build();
-        when(userProfileServiceGrpcClient.getUserProfileInfo(any())).thenReturn(profileResponse);
+        when(userProfileServiceGrpcClient.getUserProfileInfoAsync(any()))
+                .thenReturn(CompletableFuture.completedFuture(profileResponse));
 
         var authResponse = authService.refreshAccessToken(request, response);
 
@@ -207,6 +281,28 @@ class AuthServiceImplTests {
         assertEquals("avatar.png", authResponse.profile().avatarKey());
     }
 
+    @Test
+    void givenDisabledUser_whenRefreshAccessToken_thenThrowBusinessException() {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        UUID userId = UUID.randomUUID();
+
+        User user = new User();
+        user.setId(userId);
+        user.setRole(Role.USER);
+        user.setEmail("test@example.com");
+        user.setEnabled(false);
+
+        when(cookieUtils.getRefreshToken(request)).thenReturn("refresh-token");
+        when(jwtService.verify("refresh-token")).thenReturn(refreshToken(userId));
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> authService.refreshAccessToken(request, response));
+        assertEquals("ERR_USER_DISABLED", ex.getErrorCode().name());
+        verify(jwtService, never()).refreshAccessToken(any(VerifiedToken.class), any(User.class));
+    }
+
     @Test
     void givenMissingRefreshToken_whenRefreshAccessToken_thenThrowBusinessException() {
         HttpServletRequest request = mock(HttpServletRequest.class);
@@ -222,6 +318,32 @@ class AuthServiceImplTests {
     // endregion
 
 
+    // region: Validate Token Tests
+
+    @Test
+    void givenValidBearerToken_whenValidateToken_thenReturnUserIdWithSingleVerification() {
+        when(jwtService.verify("access-token")).thenReturn(
+                new VerifiedToken("test@example.com", "123", "access_token", "USER", true, Instant.now().plusSeconds(60)));
+
+        String userId = authService.validateToken("Bearer access-token");
+
+        assertEquals("123", userId);
+        verify(jwtService, times(1)).verify("access-token");
+        verifyNoMoreInteractions(jwtService);
+    }
+
+    @Test
+    void givenInvalidToken_whenValidateToken_thenThrowBusinessException() {
+        when(jwtService.verify("bad-token")).thenThrow(new RuntimeException("Invalid JWT token"));
+
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> authService.validateToken("Bearer bad-token"));
+        assertEquals("INVALID_TOKEN", ex.getErrorCode().name());
+    }
+
+    // endregion
+
+
     // region: Logout Tests
 
     @Test
@@ -449,4 +571,9 @@ class AuthServiceImplTests {
     }
 
     // endregion
-}
\ No newline at end of file
+
+    private static VerifiedToken refreshToken(UUID userId) {
+        return new VerifiedToken("test@example.com", userId.toString(), "refresh_token", null, null,
+                Instant.now().plusSeconds(60));
+    }
+}
@@ -86,4 +86,23 @@ class UserServiceImplTests {
 
         assertEquals("User  not found", ex.getMessage());
     }
+
+    @Test
+    void givenExistingUser_whenUpdatePassword_thenStoresNewHash() {
+        // given
+        String email = "test@example.com";
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword("$2a$10$legacyHash");
+
+        when(userRepository.findByEmailIgnoreCase(email)).thenReturn(Optional.of(user));
+        when(userRepository.save(user)).thenReturn(user);
+
+        // when
+        UserDetails result = userService.updatePassword(user, "{bcrypt}$2a$12$upgradedHash");
+
+        // then
+        assertEquals("{bcrypt}$2a$12$upgradedHash", result.getPassword());
+        verify(userRepository).save(user);
+    }
 }
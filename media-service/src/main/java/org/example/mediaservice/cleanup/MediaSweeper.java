@@ -0,0 +1,98 @@
+package org.example.mediaservice.cleanup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.mediaservice.model.Media;
+import org.example.mediaservice.model.Status;
+import org.example.mediaservice.model.SweepCursor;
+import org.example.mediaservice.repository.MediaRepository;
+import org.example.mediaservice.service.MediaService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+@Slf4j
+@Component
+public class MediaSweeper {
+    // media that never got approved, presigned uploads that were never confirmed, and claimed media whose storage delete failed
+    private static final List<Status> ORPHAN_STATUSES = List.of(Status.PENDING, Status.AWAITING_UPLOAD, Status.DELETED);
+
+    private final MediaRepository mediaRepository;
+    private final MediaService mediaService;
+    private final SweeperLease sweeperLease;
+    private final MeterRegistry meterRegistry;
+    private final TokenBucket deleteRateLimiter;
+    private final PageRequest batchRequest;
+    private final Duration gracePeriod;
+
+    public MediaSweeper(MediaRepository mediaRepository,
+                        MediaService mediaService,
+                        SweeperLease sweeperLease,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.media.cleanup.batch-size}") int batchSize,
+                        @Value("${app.media.cleanup.grace-period}") long gracePeriod,
+                        @Value("${app.media.cleanup.deletes-per-second}") long deletesPerSecond,
+                        @Value("${app.media.cleanup.burst}") long burst) {
+        this.mediaRepository = mediaRepository;
+        this.mediaService = mediaService;
+        this.sweeperLease = sweeperLease;
+        this.meterRegistry = meterRegistry;
+        this.deleteRateLimiter = new TokenBucket(deletesPerSecond, burst);
+        this.batchRequest = PageRequest.of(0, batchSize, Sort.by("uploadedAt", "id"));
+        this.gracePeriod = Duration.ofMillis(gracePeriod);
+    }
+
+    public void sweep() throws InterruptedException {
+        if (!sweeperLease.tryAcquire()) {
+            log.debug("Media sweeper lease is held by another instance");
+            return;
+        }
+
+        for (Status status : ORPHAN_STATUSES) {
+            if (!sweep(status)) {
+                log.warn("Lost the media sweeper lease while sweeping {} media", status);
+                return;
+            }
+        }
+    }
+
+    private boolean sweep(Status status) throws InterruptedException {
+        Instant uploadedBefore = Instant.now().minus(gracePeriod);
+        SweepCursor cursor = sweeperLease.findCursor(status);
+        int deleted = 0;
+
+        List<Media> batch;
+        do {
+            batch = mediaRepository.findSweepBatch(status, cursor.uploadedAt(), cursor.mediaId(), uploadedBefore, batchRequest);
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            deleteRateLimiter.acquire(batch.size());
+            deleted += mediaService.deleteMedia(batch, status);
+
+            Media last = batch.getLast();
+            cursor = new SweepCursor(last.getUploadedAt(), last.getId());
+            if (!sweeperLease.saveCursor(status, cursor)) {
+                record(status, deleted);
+                return false;
+            }
+        } while (batch.size() == batchRequest.getPageSize());
+
+        record(status, deleted);
+        // start over next time, so DELETED media whose S3 delete failed behind the cursor are retried
+        return sweeperLease.saveCursor(status, SweepCursor.START);
+    }
+
+    private void record(Status status, int deleted) {
+        meterRegistry.counter("media.cleanup.deleted", "status", status.name()).increment(deleted);
+        if (deleted > 0) {
+            log.info("Swept {} {} media older than {}", deleted, status, gracePeriod);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.mediaservice.cleanup;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.mediaservice.model.Status;
+import org.example.mediaservice.model.SweepCursor;
+import org.example.mediaservice.model.SweeperState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+@Slf4j
+@Component
+public class SweeperLease {
+    static final String SWEEPER_NAME = "media-sweeper";
+
+    private final MongoTemplate mongoTemplate;
+    private final Duration leaseDuration;
+    private final String owner = UUID.randomUUID().toString();
+
+    public SweeperLease(MongoTemplate mongoTemplate,
+                        @Value("${app.media.cleanup.lease-duration}") long leaseDuration) {
+        this.mongoTemplate = mongoTemplate;
+        this.leaseDuration = Duration.ofMillis(leaseDuration);
+    }
+
+    // takes over an expired lease or extends our own, the upsert fails on the unique _id while another replica holds it
+    public boolean tryAcquire() {
+        Instant now = Instant.now();
+        Query query = Query.query(Criteria.where("_id").is(SWEEPER_NAME)
+                .orOperator(Criteria.where("lease_until").lt(now), Criteria.where("owner").is(owner)));
+        Update update = new Update()
+                .set("owner", owner)
+                .set("lease_until", now.plus(leaseDuration));
+
+        try {
+            mongoTemplate.upsert(query, update, SweeperState.class);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    public SweepCursor findCursor(Status status) {
+        return Optional.ofNullable(mongoTemplate.findById(SWEEPER_NAME, SweeperState.class))
+                .map(state -> state.getCursors().get(status.name()))
+                .orElse(SweepCursor.START);
+    }
+
+    // only succeeds while we still own the lease, which it extends, so a replica that lost it cannot move the cursor
+    public boolean saveCursor(Status status, SweepCursor cursor) {
+        Query query = Query.query(Criteria.where("_id").is(SWEEPER_NAME).and("owner").is(owner));
+        Update update = new Update()
+                .set("cursors." + status.name(), cursor)
+                .set("lease_until", Instant.now().plus(leaseDuration));
+
+        return mongoTemplate.updateFirst(query, update, SweeperState.class).getMatchedCount() > 0;
+    }
+
+    @PreDestroy
+    public void release() {
+        Query query = Query.query(Criteria.where("_id").is(SWEEPER_NAME).and("owner").is(owner));
+        try {
+            mongoTemplate.updateFirst(query, new Update().set("lease_until", Instant.EPOCH), SweeperState.class);
+        } catch (Exception e) {
+            log.warn("Failed to release the media sweeper lease: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.mediaservice.cleanup;
+
+import java.util.concurrent.TimeUnit;
+
+public class TokenBucket {
+    private final long capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long refilledAt;
+
+    public TokenBucket(long tokensPerSecond, long capacity) {
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / (double) TimeUnit.SECONDS.toNanos(1);
+        this.tokens = capacity;
+        this.refilledAt = System.nanoTime();
+    }
+
+    // requests larger than the capacity are served once the bucket is full and leave it in debt
+    public synchronized void acquire(long permits) throws InterruptedException {
+        refill();
+        double needed = Math.min(permits, capacity);
+        while (tokens < needed) {
+            long waitNanos = (long) Math.ceil((needed - tokens) / tokensPerNano);
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+            refill();
+        }
+        tokens -= permits;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+        refilledAt = now;
+    }
+}
@@ -1,14 +1,25 @@
 package org.example.mediaservice.config;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.crt.S3CrtConnectionHealthConfiguration;
+import software.amazon.awssdk.services.s3.crt.S3CrtHttpConfiguration;
+import software.amazon.awssdk.services.s3.crt.S3CrtRetryConfiguration;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 @Configuration
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "s3", matchIfMissing = true)
 public class AwsConfig {
     @Bean
     public S3Client s3Client(
@@ -27,6 +38,51 @@ public class AwsConfig {
                 .build();
     }
 
+    // the CRT client splits large objects into parallel parts on its own, using the multipart settings below
+    @Bean
+    public S3AsyncClient s3AsyncClient(
+            @Value("${aws.s3.access-key}") String accessKey,
+            @Value("${aws.s3.secret-key}") String secretKey,
+            @Value("${aws.s3.region}") String region,
+            @Value("${app.s3.client.max-concurrency}") int maxConcurrency,
+            @Value("${app.s3.client.connection-timeout}") long connectionTimeout,
+            @Value("${app.s3.client.min-throughput}") long minThroughput,
+            @Value("${app.s3.client.min-throughput-timeout}") long minThroughputTimeout,
+            @Value("${app.s3.client.max-retries}") int maxRetries,
+            @Value("${app.s3.upload.multipart-threshold}") long multipartThreshold,
+            @Value("${app.s3.upload.part-size}") long partSize
+    ) {
+        AwsBasicCredentials credentials = AwsBasicCredentials.builder()
+                .accessKeyId(accessKey)
+                .secretAccessKey(secretKey)
+                .build();
+
+        return S3AsyncClient.crtBuilder()
+                .credentialsProvider(StaticCredentialsProvider.create(credentials))
+                .region(Region.of(region))
+                .maxConcurrency(maxConcurrency)
+                .thresholdInBytes(multipartThreshold)
+                .minimumPartSizeInBytes(partSize)
+                .httpConfiguration(S3CrtHttpConfiguration.builder()
+                        .connectionTimeout(Duration.ofMillis(connectionTimeout))
+                        .connectionHealthConfiguration(S3CrtConnectionHealthConfiguration.builder()
+                                .minimumThroughputInBps(minThroughput)
+                                .minimumThroughputTimeout(Duration.ofMillis(minThroughputTimeout))
+                                .build())
+                        .build())
+                .retryConfiguration(S3CrtRetryConfiguration.builder()
+                        .numRetries(maxRetries)
+                        .build())
+                .build();
+    }
+
+    // feeds upload streams into the async client and runs the continuations of its futures,
+    // so blocking stream reads and Mongo calls stay off the CRT event loop
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService s3Executor(@Value("${app.s3.client.executor-threads}") int threads) {
+        return Executors.newFixedThreadPool(threads);
+    }
+
     @Bean
     public S3Presigner s3Presigner(@Value("${aws.s3.region}") String region) {
         return S3Presigner.builder()
@@ -0,0 +1,69 @@
+package org.example.mediaservice.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.listener.ContainerProperties;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class KafkaConsumerConfig {
+    public static final String AVATAR_EVENTS_TOPIC = "user-profile-avatar-events";
+    public static final String AVATAR_EVENTS_RETRY_0 = "user-profile-avatar-events-retry-0";
+    public static final String AVATAR_EVENTS_RETRY_1 = "user-profile-avatar-events-retry-1";
+    public static final String AVATAR_EVENTS_DLT = "user-profile-avatar-events-dlt";
+    public static final String DOWNLOAD_URL_EVICTIONS_TOPIC = "media-download-url-evictions";
+
+    @Bean
+    public NewTopic avatarEventsTopic(@Value("${app.kafka.avatar-events.partitions}") int partitions) {
+        return TopicBuilder.name(AVATAR_EVENTS_TOPIC)
+                .partitions(partitions)
+                .build();
+    }
+
+    @Bean
+    public KafkaAdmin.NewTopics avatarEventsRetryTopics(@Value("${app.kafka.avatar-events.partitions}") int partitions) {
+        return new KafkaAdmin.NewTopics(
+                TopicBuilder.name(AVATAR_EVENTS_RETRY_0).partitions(partitions).build(),
+                TopicBuilder.name(AVATAR_EVENTS_RETRY_1).partitions(partitions).build(),
+                TopicBuilder.name(AVATAR_EVENTS_DLT).partitions(1).build()
+        );
+    }
+
+    // cached urls expire after a day, so older evictions are of no use to anyone
+    @Bean
+    public NewTopic downloadUrlEvictionsTopic(@Value("${app.s3.presigned-url-cache.expire-after}") long expireAfter) {
+        return TopicBuilder.name(DOWNLOAD_URL_EVICTIONS_TOPIC)
+                .partitions(1)
+                .config(TopicConfig.RETENTION_MS_CONFIG, String.valueOf(expireAfter))
+                .build();
+    }
+
+    // listener threads beyond the partition count would sit idle, so concurrency follows the partitions
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> avatarEventsListenerContainerFactory(
+            ConsumerFactory<String, byte[]> consumerFactory,
+            @Value("${app.kafka.avatar-events.concurrency}") int concurrency
+    ) {
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setMicrometerEnabled(true);
+        return factory;
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService avatarEventExecutor(@Value("${app.kafka.avatar-events.parallelism}") int parallelism) {
+        return Executors.newFixedThreadPool(parallelism);
+    }
+}
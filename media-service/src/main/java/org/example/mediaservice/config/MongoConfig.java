@@ -1,9 +1,113 @@
 package org.example.mediaservice.config;
 
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.example.mediaservice.model.Media;
+import org.example.mediaservice.model.Status;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.config.EnableMongoAuditing;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
 @Configuration
 @EnableMongoAuditing
 public class MongoConfig {
+    static final String PENDING_TTL_INDEX = "pending_ttl";
+
+    private final MongoTemplate mongoTemplate;
+    private final Duration pendingTtl;
+
+    public MongoConfig(MongoTemplate mongoTemplate,
+                       @Value("${app.media.indexes.pending-ttl}") long pendingTtl) {
+        this.mongoTemplate = mongoTemplate;
+        this.pendingTtl = Duration.ofMillis(pendingTtl);
+    }
+
+    // creates the indexes declared on Media, then checks they exist, since a failed build only logs
+    @PostConstruct
+    public void createIndexes() {
+        IndexOperations indexOps = mongoTemplate.indexOps(Media.class);
+        List<IndexDefinition> expected = new ArrayList<>();
+        new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext())
+                .resolveIndexFor(Media.class)
+                .forEach(expected::add);
+
+        syncPendingTtlIndex(indexOps);
+        if (!pendingTtl.isZero()) {
+            expected.add(pendingTtlIndex());
+        }
+
+        for (IndexDefinition index : expected) {
+            try {
+                indexOps.createIndex(index);
+            } catch (RuntimeException e) {
+                log.error("Failed to create index {} on medias: {}", indexName(index), e.getMessage());
+            }
+        }
+
+        verifyIndexes(indexOps, expected);
+    }
+
+    private void verifyIndexes(IndexOperations indexOps, List<IndexDefinition> expected) {
+        Set<String> existing = indexOps.getIndexInfo().stream()
+                .map(IndexInfo::getName)
+                .collect(Collectors.toSet());
+        List<String> missing = expected.stream()
+                .map(MongoConfig::indexName)
+                .filter(name -> !existing.contains(name))
+                .toList();
+
+        if (missing.isEmpty()) {
+            log.info("Verified indexes on medias: {}", existing);
+        } else {
+            log.error("Missing indexes on medias: {}, lookups on them fall back to collection scans", missing);
+        }
+    }
+
+    // mongo rejects a changed expireAfter for an existing index, so it is dropped and rebuilt
+    private void syncPendingTtlIndex(IndexOperations indexOps) {
+        Optional<IndexInfo> current = indexOps.getIndexInfo().stream()
+                .filter(info -> PENDING_TTL_INDEX.equals(info.getName()))
+                .findFirst();
+        if (current.isEmpty()) {
+            return;
+        }
+
+        boolean upToDate = current.get().getExpireAfter()
+                .map(pendingTtl::equals)
+                .orElse(false);
+        if (pendingTtl.isZero() || !upToDate) {
+            indexOps.dropIndex(PENDING_TTL_INDEX);
+            log.info("Dropped index {} on medias", PENDING_TTL_INDEX);
+        }
+    }
+
+    // removes abandoned PENDING records only, their S3 objects need a bucket lifecycle rule
+    private Index pendingTtlIndex() {
+        return new Index()
+                .on("uploaded_at", Sort.Direction.ASC)
+                .expire(pendingTtl)
+                .partial(PartialIndexFilter.of(Criteria.where("status").is(Status.PENDING.name())))
+                .named(PENDING_TTL_INDEX);
+    }
+
+    private static String indexName(IndexDefinition index) {
+        return String.valueOf(index.getIndexOptions().get("name"));
+    }
 }
@@ -2,8 +2,7 @@ package org.example.mediaservice.config;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.example.mediaservice.model.Status;
-import org.example.mediaservice.service.MediaService;
+import org.example.mediaservice.cleanup.MediaSweeper;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -13,15 +12,16 @@ import org.springframework.scheduling.annotation.Scheduled;
 @EnableScheduling
 @RequiredArgsConstructor
 public class ScheduleConfig {
-    private final MediaService mediaService;
+    private final MediaSweeper mediaSweeper;
 
-    @Scheduled(cron = "0 0 * * * *")
-    public void deletePendingMedia() {
-        log.info("Scheduled task started: deleting PENDING media");
+    @Scheduled(fixedDelayString = "${app.media.cleanup.interval}", initialDelayString = "${app.media.cleanup.interval}")
+    public void sweepOrphanedMedia() {
         try {
-            mediaService.deleteMedia(Status.PENDING);
+            mediaSweeper.sweep();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         } catch (Exception e) {
-            log.error("Error during scheduled deletion of PENDING media: {}", e.getMessage());
+            log.error("Error during media sweep: {}", e.getMessage());
         }
     }
 }
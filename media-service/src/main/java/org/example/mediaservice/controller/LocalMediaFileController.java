@@ -0,0 +1,125 @@
+package org.example.mediaservice.controller;
+
+import io.swagger.v3.oas.annotations.Hidden;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.example.mediaservice.dto.error.ErrorCode;
+import org.example.mediaservice.exception.BusinessException;
+import org.example.mediaservice.storage.impl.LocalMediaStorage;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+
+// stands in for the S3 bucket when app.storage.type is local, requests are authorized by the url signature
+@Hidden
+@RestController
+@RequestMapping(LocalMediaStorage.FILES_PATH)
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "local")
+public class LocalMediaFileController {
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final Duration CACHE_DURATION = Duration.ofHours(48);
+
+    private final LocalMediaStorage localMediaStorage;
+
+    @GetMapping("{key}")
+    public void download(@PathVariable String key,
+                         @RequestParam long expires,
+                         @RequestParam String signature,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        Path file = localMediaStorage.verifyDownload(key, expires, signature);
+        long length = Files.size(file);
+        long start = 0;
+        long end = length - 1;
+
+        HttpRange range = singleRange(request.getHeader(HttpHeaders.RANGE));
+        if (range != null) {
+            // HttpRange clamps the end to the file but leaves a start past it as is
+            start = range.getRangeStart(length);
+            end = range.getRangeEnd(length);
+            if (start >= length) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                throw new BusinessException(ErrorCode.RANGE_NOT_SATISFIABLE);
+            }
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=" + CACHE_DURATION.toSeconds());
+        response.setContentType(MediaTypeFactory.getMediaType(key).orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+        response.setContentLengthLong(end - start + 1);
+
+        transfer(file, start, end - start + 1, request, response);
+    }
+
+    @PutMapping("{key}")
+    public ResponseEntity<Void> upload(@PathVariable String key,
+                                       @RequestParam long expires,
+                                       @RequestParam String signature,
+                                       @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                       HttpServletRequest request) throws IOException {
+        long size = request.getContentLengthLong();
+        localMediaStorage.verifyUpload(key, contentType, size, expires, signature);
+        localMediaStorage.write(key, size, Channels.newChannel(request.getInputStream()));
+        return ResponseEntity.ok().build();
+    }
+
+    // tomcat's NIO connector hands the file to FileChannel.transferTo on the socket itself, so the bytes never enter the heap
+    private static void transfer(Path file, long start, long count, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, remaining, out);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+        }
+    }
+
+    // malformed and multi-range headers are ignored and the whole file is sent, which RFC 9110 allows
+    private static HttpRange singleRange(String header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(header);
+            return ranges.size() == 1 ? ranges.getFirst() : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -9,12 +9,15 @@ import io.swagger.v3.oas.annotations.media.Schema;
 
 import lombok.RequiredArgsConstructor;
 import org.example.mediaservice.dto.media.MediaResponse;
+import org.example.mediaservice.dto.media.UploadUrlRequest;
+import org.example.mediaservice.dto.media.UploadUrlResponse;
 import org.example.mediaservice.service.MediaService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/media")
@@ -46,11 +49,40 @@ public class MediaController {
                     @ApiResponse(responseCode = "400", description = "Невірний вхідний файл", content = @Content)
             })
     @PostMapping("/upload")
-    public ResponseEntity<MediaResponse> uploadMedia(
+    public CompletableFuture<ResponseEntity<MediaResponse>> uploadMedia(
             @Parameter(description = "Файл медіа для завантаження", required = true)
             @RequestParam(value = "mediaFile") MultipartFile mediaFile
     ) throws IOException {
-        return ResponseEntity.ok(mediaService.uploadMedia(mediaFile));
+        return mediaService.uploadMedia(mediaFile).thenApply(ResponseEntity::ok);
+    }
+
+    @Operation(summary = "Отримати presigned URL для прямого завантаження в S3",
+            description = "Створює запис медіа зі статусом AWAITING_UPLOAD та повертає presigned PUT URL. " +
+                    "Після завантаження файлу клієнт має підтвердити його через /upload/confirm",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Presigned URL успішно створено",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = UploadUrlResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Невірні параметри файлу", content = @Content)
+            })
+    @PostMapping("/upload-url")
+    public ResponseEntity<UploadUrlResponse> createUploadUrl(@RequestBody UploadUrlRequest request) {
+        return ResponseEntity.ok(mediaService.createUploadUrl(request));
+    }
+
+    @Operation(summary = "Підтвердити пряме завантаження в S3",
+            description = "Перевіряє, що файл завантажено в S3 з заявленими розміром і типом, та повертає його presigned URL",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Завантаження підтверджено",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = MediaResponse.class))),
+                    @ApiResponse(responseCode = "404", description = "Медіа файл не знайдено", content = @Content),
+                    @ApiResponse(responseCode = "409", description = "Файл ще не завантажено в S3", content = @Content)
+            })
+    @PostMapping("/upload/confirm")
+    public ResponseEntity<MediaResponse> confirmUpload(
+            @Parameter(description = "Ключ медіа файлу", required = true, example = "123e4567-e89b-12d3-a456-426614174000-avatar.png")
+            @RequestParam String key
+    ) {
+        return ResponseEntity.ok(mediaService.confirmUpload(key));
     }
 
     @Operation(summary = "Видалити медіа файл за ключем",
@@ -60,11 +92,10 @@ public class MediaController {
                     @ApiResponse(responseCode = "404", description = "Медіа файл не знайдено", content = @Content)
             })
     @DeleteMapping
-    public ResponseEntity<Void> deleteMediaByKey(
+    public CompletableFuture<ResponseEntity<Void>> deleteMediaByKey(
             @Parameter(description = "Ключ медіа файлу для видалення", required = true, example = "123e4567-e89b-12d3-a456-426614174000-avatar.png")
             @RequestParam String key
     ) {
-        mediaService.deleteMediaByKey(key);
-        return ResponseEntity.noContent().build();
+        return mediaService.deleteMediaByKey(key).thenApply(ignored -> ResponseEntity.noContent().build());
     }
 }
@@ -8,6 +8,11 @@ public enum ErrorCode {
     RESOURCE_NOT_FOUND("RESOURCE_NOT_FOUND", "Ресурс не знайдено", HttpStatus.NOT_FOUND),
     INTERNAL_EXCEPTION("INTERNAL_EXCEPTION", "Виникла внутрішня помилка, будь ласка, спробуйте пізніше або зверніться до адміністратора", HttpStatus.INTERNAL_SERVER_ERROR),
     FILE_TOO_LARGE("FILE_TO_LARGE", "Файл занадто великий", HttpStatus.BAD_REQUEST),
+    INVALID_UPLOAD_REQUEST("INVALID_UPLOAD_REQUEST", "Невірні параметри завантаження файлу", HttpStatus.BAD_REQUEST),
+    UPLOAD_NOT_COMPLETED("UPLOAD_NOT_COMPLETED", "Файл ще не завантажено в сховище", HttpStatus.CONFLICT),
+    UPLOAD_MISMATCH("UPLOAD_MISMATCH", "Завантажений файл не відповідає заявленим параметрам", HttpStatus.BAD_REQUEST),
+    INVALID_SIGNATURE("INVALID_SIGNATURE", "Посилання недійсне або термін його дії минув", HttpStatus.FORBIDDEN),
+    RANGE_NOT_SATISFIABLE("RANGE_NOT_SATISFIABLE", "Запитаний діапазон файлу недоступний", HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE),
     ;
 
     private final String code;
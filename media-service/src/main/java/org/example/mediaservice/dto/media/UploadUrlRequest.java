@@ -0,0 +1,15 @@
+package org.example.mediaservice.dto.media;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "DTO запиту на отримання presigned URL для прямого завантаження в S3")
+public record UploadUrlRequest(
+        @Schema(description = "Оригінальна назва файлу", example = "avatar.png")
+        String filename,
+
+        @Schema(description = "MIME-тип файлу, клієнт має передати його в заголовку Content-Type", example = "image/png")
+        String contentType,
+
+        @Schema(description = "Розмір файлу в байтах, клієнт має передати його в заголовку Content-Length", example = "524288")
+        long size
+) {}
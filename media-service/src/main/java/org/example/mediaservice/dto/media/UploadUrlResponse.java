@@ -0,0 +1,21 @@
+package org.example.mediaservice.dto.media;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Schema(description = "DTO відповіді з presigned URL для прямого завантаження в S3")
+public record UploadUrlResponse(
+        @Schema(description = "Унікальний ключ об’єкта медіа в S3", example = "123e4567-e89b-12d3-a456-426614174000-avatar.png")
+        String key,
+
+        @Schema(description = "Presigned URL для PUT запиту з вмістом файлу")
+        String uploadUrl,
+
+        @Schema(description = "Заголовки, які потрібно передати разом з PUT запитом")
+        Map<String, String> headers,
+
+        @Schema(description = "Час, до якого дійсний presigned URL")
+        Instant expiresAt
+) {}
@@ -1,7 +1,11 @@
 package org.example.mediaservice.event;
 
+import org.example.mediaservice.model.Status;
+
 public record AvatarEvent(
-        String action,
+        String eventId,
+        long version,
+        Status action,
         String key
 ) {
 }
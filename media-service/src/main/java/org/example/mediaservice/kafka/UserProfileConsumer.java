@@ -1,32 +1,144 @@
 package org.example.mediaservice.kafka;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.example.mediaservice.config.KafkaConsumerConfig;
 import org.example.mediaservice.event.AvatarEvent;
+import org.example.mediaservice.kafka.codec.AvatarEventCodec;
+import org.example.mediaservice.kafka.dedupe.ProcessedEventStore;
+import org.example.mediaservice.kafka.routing.AvatarEventRouter;
+import org.example.mediaservice.kafka.routing.PoisonAvatarEventException;
+import org.example.mediaservice.kafka.strategy.AvatarEventHandler;
 import org.example.mediaservice.kafka.strategy.AvatarEventHandlerFactory;
-import org.example.mediaservice.model.Status;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class UserProfileConsumer {
     private final AvatarEventHandlerFactory avatarEventHandlerFactory;
-    private final ObjectMapper objectMapper;
+    private final AvatarEventRouter avatarEventRouter;
+    private final ProcessedEventStore processedEventStore;
+    private final AvatarEventCodec avatarEventCodec;
+    private final ExecutorService avatarEventExecutor;
+    private final MeterRegistry meterRegistry;
+    private final long firstRetryDelay;
+    private final long secondRetryDelay;
+
+    public UserProfileConsumer(AvatarEventHandlerFactory avatarEventHandlerFactory,
+                               AvatarEventRouter avatarEventRouter,
+                               ProcessedEventStore processedEventStore,
+                               AvatarEventCodec avatarEventCodec,
+                               @Qualifier("avatarEventExecutor") ExecutorService avatarEventExecutor,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.kafka.avatar-events.retry.first-delay}") long firstRetryDelay,
+                               @Value("${app.kafka.avatar-events.retry.second-delay}") long secondRetryDelay) {
+        this.avatarEventHandlerFactory = avatarEventHandlerFactory;
+        this.avatarEventRouter = avatarEventRouter;
+        this.processedEventStore = processedEventStore;
+        this.avatarEventCodec = avatarEventCodec;
+        this.avatarEventExecutor = avatarEventExecutor;
+        this.meterRegistry = meterRegistry;
+        this.firstRetryDelay = firstRetryDelay;
+        this.secondRetryDelay = secondRetryDelay;
+    }
+
+    @KafkaListener(
+            topics = KafkaConsumerConfig.AVATAR_EVENTS_TOPIC,
+            groupId = "media-service",
+            containerFactory = "avatarEventsListenerContainerFactory"
+    )
+    public void consumeAvatarEvents(List<ConsumerRecord<String, byte[]>> records, Acknowledgment acknowledgment) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+
+        // events for the same key stay in order, different keys are processed in parallel
+        Map<String, List<ConsumerRecord<String, byte[]>>> recordsByKey = records.stream()
+                .collect(Collectors.groupingBy(record -> Objects.toString(record.key(), ""),
+                        LinkedHashMap::new, Collectors.toList()));
+
+        CompletableFuture<?>[] tasks = recordsByKey.values().stream()
+                .map(group -> CompletableFuture.runAsync(
+                        () -> group.forEach(record -> process(record, KafkaConsumerConfig.AVATAR_EVENTS_RETRY_0)),
+                        avatarEventExecutor))
+                .toArray(CompletableFuture[]::new);
+
+        // failed records are already parked on a retry topic or the DLT, only a failed hand-off stops the commit
+        CompletableFuture.allOf(tasks).join();
+        acknowledgment.acknowledge();
+
+        sample.stop(meterRegistry.timer("media.avatar.events.batch"));
+        log.info("Consumed {} avatar events for {} keys", records.size(), recordsByKey.size());
+    }
+
+    @KafkaListener(
+            topics = KafkaConsumerConfig.AVATAR_EVENTS_RETRY_0,
+            groupId = "media-service",
+            containerFactory = "avatarEventsListenerContainerFactory"
+    )
+    public void consumeFirstRetry(List<ConsumerRecord<String, byte[]>> records, Acknowledgment acknowledgment) {
+        retry(records, acknowledgment, firstRetryDelay, KafkaConsumerConfig.AVATAR_EVENTS_RETRY_1);
+    }
+
+    @KafkaListener(
+            topics = KafkaConsumerConfig.AVATAR_EVENTS_RETRY_1,
+            groupId = "media-service",
+            containerFactory = "avatarEventsListenerContainerFactory"
+    )
+    public void consumeSecondRetry(List<ConsumerRecord<String, byte[]>> records, Acknowledgment acknowledgment) {
+        retry(records, acknowledgment, secondRetryDelay, KafkaConsumerConfig.AVATAR_EVENTS_DLT);
+    }
+
+    // records in a retry topic are ordered by the time they failed, so the first one not yet due ends the batch
+    void retry(List<ConsumerRecord<String, byte[]>> records, Acknowledgment acknowledgment, long delay, String nextTopic) {
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<String, byte[]> record = records.get(i);
+
+            long wait = record.timestamp() + delay - System.currentTimeMillis();
+            if (wait > 0) {
+                acknowledgment.nack(i, Duration.ofMillis(wait));
+                return;
+            }
+            process(record, nextTopic);
+        }
+        acknowledgment.acknowledge();
+    }
 
-    @KafkaListener(topics = "user-profile-avatar-events", groupId = "media-service")
-    public void consumeAvatarEvent(byte[] payload) {
+    private void process(ConsumerRecord<String, byte[]> record, String retryTopic) {
         try {
-            AvatarEvent event = objectMapper.readValue(payload, AvatarEvent.class);
-            log.info("Received avatar event: action={}, key={}", event.action(), event.key());
+            AvatarEvent event = avatarEventCodec.decode(record.value());
+            if (processedEventStore.isProcessed(event.eventId())) {
+                meterRegistry.counter("media.avatar.events.duplicates").increment();
+                log.info("Skipping already processed avatar event {} for key {}", event.eventId(), event.key());
+                return;
+            }
 
-            avatarEventHandlerFactory.getHandler(Status.valueOf(event.action()))
-                    .handle(new AvatarEvent(event.action(), event.key()));
-            log.info("Successfully consumed avatar event");
+            resolveHandler(event).handle(event);
+            processedEventStore.markProcessed(event.eventId());
+            meterRegistry.counter("media.avatar.events.processed", "action", event.action().name()).increment();
         } catch (Exception ex) {
-            log.error("Failed to process avatar event: {}", ex.getMessage(), ex);
+            avatarEventRouter.route(record, ex, retryTopic);
+        }
+    }
+
+    private AvatarEventHandler resolveHandler(AvatarEvent event) {
+        AvatarEventHandler handler = avatarEventHandlerFactory.getHandler(event.action());
+        if (handler == null) {
+            throw new PoisonAvatarEventException("Unsupported avatar event action: " + event.action());
         }
+        return handler;
     }
 }
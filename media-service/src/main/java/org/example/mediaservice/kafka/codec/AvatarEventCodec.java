@@ -0,0 +1,86 @@
+package org.example.mediaservice.kafka.codec;
+
+import avatar.event.AvatarAction;
+import avatar.event.AvatarEventEnvelope;
+import avatar.event.AvatarEventMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.InvalidProtocolBufferException;
+import lombok.RequiredArgsConstructor;
+import org.example.mediaservice.event.AvatarEvent;
+import org.example.mediaservice.kafka.routing.PoisonAvatarEventException;
+import org.example.mediaservice.model.Status;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+@Component
+@RequiredArgsConstructor
+public class AvatarEventCodec {
+    public static final int SCHEMA_VERSION = 1;
+    private static final byte JSON_OBJECT_START = '{';
+
+    private final ObjectMapper objectMapper;
+
+    // protobuf envelopes start with the schemaVersion tag, so a leading '{' can only be a legacy JSON event
+    public AvatarEvent decode(byte[] payload) {
+        if (payload == null || payload.length == 0) {
+            throw new PoisonAvatarEventException("Empty avatar event");
+        }
+        return payload[0] == JSON_OBJECT_START ? decodeJson(payload) : decodeProtobuf(payload);
+    }
+
+    public byte[] encode(AvatarEvent event) {
+        return AvatarEventEnvelope.newBuilder()
+                .setSchemaVersion(SCHEMA_VERSION)
+                .setEvent(AvatarEventMessage.newBuilder()
+                        .setEventId(event.eventId())
+                        .setVersion(event.version())
+                        .setAction(toAvatarAction(event.action()))
+                        .setKey(event.key()))
+                .build()
+                .toByteArray();
+    }
+
+    private AvatarEvent decodeProtobuf(byte[] payload) {
+        AvatarEventEnvelope envelope;
+        try {
+            envelope = AvatarEventEnvelope.parseFrom(payload);
+        } catch (InvalidProtocolBufferException e) {
+            throw new PoisonAvatarEventException("Malformed avatar event", e);
+        }
+
+        if (envelope.getSchemaVersion() > SCHEMA_VERSION) {
+            throw new PoisonAvatarEventException("Unsupported avatar event schema version: " + envelope.getSchemaVersion());
+        }
+        if (!envelope.hasEvent()) {
+            throw new PoisonAvatarEventException("Avatar event envelope has no event");
+        }
+
+        AvatarEventMessage message = envelope.getEvent();
+        return new AvatarEvent(message.getEventId(), message.getVersion(), toStatus(message.getAction()), message.getKey());
+    }
+
+    private AvatarEvent decodeJson(byte[] payload) {
+        try {
+            return objectMapper.readValue(payload, AvatarEvent.class);
+        } catch (IOException e) {
+            throw new PoisonAvatarEventException("Malformed avatar event", e);
+        }
+    }
+
+    private static Status toStatus(AvatarAction action) {
+        return switch (action) {
+            case AVATAR_ACTION_APPROVED -> Status.APPROVED;
+            case AVATAR_ACTION_DELETED -> Status.DELETED;
+            default -> throw new PoisonAvatarEventException("Unsupported avatar event action: " + action);
+        };
+    }
+
+    private static AvatarAction toAvatarAction(Status status) {
+        return switch (status) {
+            case APPROVED -> AvatarAction.AVATAR_ACTION_APPROVED;
+            case DELETED -> AvatarAction.AVATAR_ACTION_DELETED;
+            default -> throw new IllegalArgumentException("Status " + status + " is not an avatar event action");
+        };
+    }
+}
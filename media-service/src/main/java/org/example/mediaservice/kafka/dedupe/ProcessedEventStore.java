@@ -0,0 +1,76 @@
+package org.example.mediaservice.kafka.dedupe;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.example.mediaservice.model.ProcessedEvent;
+import org.example.mediaservice.repository.ProcessedEventRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Slf4j
+@Component
+public class ProcessedEventStore {
+    private final ProcessedEventRepository processedEventRepository;
+    private final MongoTemplate mongoTemplate;
+    private final Duration retention;
+    private final Map<String, Boolean> recentEventIds;
+
+    public ProcessedEventStore(ProcessedEventRepository processedEventRepository,
+                               MongoTemplate mongoTemplate,
+                               @Value("${app.kafka.avatar-events.dedupe.cache-size}") int cacheSize,
+                               @Value("${app.kafka.avatar-events.dedupe.retention}") long retention) {
+        this.processedEventRepository = processedEventRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.retention = Duration.ofMillis(retention);
+        // access-ordered, so ids of keys that keep getting redelivered stay in memory
+        this.recentEventIds = Collections.synchronizedMap(new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    // mongo drops entries after the retention, which only has to outlive the longest redelivery path
+    @PostConstruct
+    public void createTtlIndex() {
+        mongoTemplate.indexOps(ProcessedEvent.class)
+                .createIndex(new Index().on("processed_at", Sort.Direction.ASC).expire(retention));
+    }
+
+    public boolean isProcessed(String eventId) {
+        if (eventId == null) {
+            return false;
+        }
+        if (recentEventIds.get(eventId) != null) {
+            return true;
+        }
+        if (processedEventRepository.existsById(eventId)) {
+            recentEventIds.put(eventId, Boolean.TRUE);
+            return true;
+        }
+        return false;
+    }
+
+    public void markProcessed(String eventId) {
+        if (eventId == null) {
+            return;
+        }
+        try {
+            processedEventRepository.insert(new ProcessedEvent(eventId, Instant.now()));
+        } catch (DuplicateKeyException e) {
+            log.debug("Event {} was already marked as processed", eventId);
+        }
+        recentEventIds.put(eventId, Boolean.TRUE);
+    }
+}
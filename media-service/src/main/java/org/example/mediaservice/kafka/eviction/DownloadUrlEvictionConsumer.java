@@ -0,0 +1,27 @@
+package org.example.mediaservice.kafka.eviction;
+
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.example.mediaservice.config.KafkaConsumerConfig;
+import org.example.mediaservice.service.S3PresignedService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "s3", matchIfMissing = true)
+public class DownloadUrlEvictionConsumer {
+    private final S3PresignedService s3PresignedService;
+
+    // every replica has its own group so each one drops the url from its cache, a new replica starts with an empty
+    // cache and has nothing older to evict
+    @KafkaListener(
+            topics = KafkaConsumerConfig.DOWNLOAD_URL_EVICTIONS_TOPIC,
+            groupId = "${app.kafka.download-url-evictions.group-id}",
+            properties = "auto.offset.reset=latest"
+    )
+    public void consume(ConsumerRecord<String, byte[]> record) {
+        s3PresignedService.evictPresignedUrl(record.key());
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.mediaservice.kafka.eviction;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.mediaservice.config.KafkaConsumerConfig;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "s3", matchIfMissing = true)
+public class DownloadUrlEvictionPublisher {
+    private static final byte[] EMPTY = new byte[0];
+
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    // not awaited, a replica that misses the eviction keeps the url until the cache expires it
+    public void publish(String key) {
+        kafkaTemplate.send(KafkaConsumerConfig.DOWNLOAD_URL_EVICTIONS_TOPIC, key, EMPTY)
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        log.warn("Failed to publish download url eviction for key {}: {}", key, ex.getMessage());
+                    }
+                });
+    }
+}
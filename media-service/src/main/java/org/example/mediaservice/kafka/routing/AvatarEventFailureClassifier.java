@@ -0,0 +1,33 @@
+package org.example.mediaservice.kafka.routing;
+
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+
+public final class AvatarEventFailureClassifier {
+    private AvatarEventFailureClassifier() {
+    }
+
+    // anything that is not known to be permanent is retried, the DLT catches what never recovers
+    public static boolean isPoison(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof PoisonAvatarEventException) {
+                return true;
+            }
+            if (isTransient(t)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isTransient(Throwable t) {
+        if (t instanceof SdkServiceException serviceException) {
+            return serviceException.isThrottlingException() || serviceException.statusCode() >= 500;
+        }
+        return t instanceof SdkClientException
+                || t instanceof TransientDataAccessException
+                || t instanceof DataAccessResourceFailureException;
+    }
+}
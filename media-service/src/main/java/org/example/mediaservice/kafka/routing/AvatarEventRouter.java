@@ -0,0 +1,38 @@
+package org.example.mediaservice.kafka.routing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.example.mediaservice.config.KafkaConsumerConfig;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AvatarEventRouter {
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
+
+    // blocks until the broker has the record, so the source offset is only committed once the failure is parked
+    public void route(ConsumerRecord<String, byte[]> record, Throwable failure, String retryTopic) {
+        String target = AvatarEventFailureClassifier.isPoison(failure) ? KafkaConsumerConfig.AVATAR_EVENTS_DLT : retryTopic;
+
+        ProducerRecord<String, byte[]> routed = new ProducerRecord<>(target, record.key(), record.value());
+        routed.headers().add(KafkaHeaders.DLT_ORIGINAL_TOPIC, record.topic().getBytes(StandardCharsets.UTF_8));
+        routed.headers().add(KafkaHeaders.DLT_EXCEPTION_FQCN, failure.getClass().getName().getBytes(StandardCharsets.UTF_8));
+        routed.headers().add(KafkaHeaders.DLT_EXCEPTION_MESSAGE,
+                Objects.toString(failure.getMessage(), "").getBytes(StandardCharsets.UTF_8));
+
+        kafkaTemplate.send(routed).join();
+
+        meterRegistry.counter("media.avatar.events.routed", "topic", target).increment();
+        log.warn("Routed avatar event with key {} from {} to {}: {}", record.key(), record.topic(), target, failure.getMessage());
+    }
+}
@@ -0,0 +1,11 @@
+package org.example.mediaservice.kafka.routing;
+
+public class PoisonAvatarEventException extends RuntimeException {
+    public PoisonAvatarEventException(String message) {
+        super(message);
+    }
+
+    public PoisonAvatarEventException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -2,7 +2,9 @@ package org.example.mediaservice.kafka.strategy.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.mediaservice.dto.error.ErrorCode;
 import org.example.mediaservice.event.AvatarEvent;
+import org.example.mediaservice.exception.BusinessException;
 import org.example.mediaservice.kafka.strategy.AvatarEventHandler;
 import org.example.mediaservice.model.Status;
 import org.example.mediaservice.service.MediaService;
@@ -16,8 +18,16 @@ public class DeleteAvatarHandler implements AvatarEventHandler {
 
     @Override
     public void handle(AvatarEvent event) {
-        mediaService.deleteMediaByKey(event.key());
-        log.info("Successfully deleted media with key: {}", event.key());
+        try {
+            mediaService.deleteMediaByKey(event.key(), event.version());
+            log.info("Successfully deleted media with key: {}", event.key());
+        } catch (BusinessException e) {
+            if (e.getErrorCode() != ErrorCode.RESOURCE_NOT_FOUND) {
+                throw e;
+            }
+            // a redelivered batch may contain deletes that already went through
+            log.info("Media with key {} is already deleted", event.key());
+        }
     }
 
     @Override
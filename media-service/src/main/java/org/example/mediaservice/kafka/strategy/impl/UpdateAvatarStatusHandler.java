@@ -16,7 +16,7 @@ public class UpdateAvatarStatusHandler implements AvatarEventHandler {
 
     @Override
     public void handle(AvatarEvent event) {
-        mediaService.updateMediaStatus(event.action(), event.key());
+        mediaService.updateMediaStatus(event.action(), event.key(), event.version());
         log.info("Updated media status for key {} to {}", event.key(), event.action());
     }
 
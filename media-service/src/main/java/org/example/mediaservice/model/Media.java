@@ -5,12 +5,15 @@ import lombok.*;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
 import java.time.Instant;
 
 @Document(collection = "medias")
+@CompoundIndex(name = "status_uploaded_at", def = "{ 'status': 1, 'uploaded_at': 1 }")
 @Getter
 @Setter
 @Builder
@@ -28,6 +31,7 @@ public class Media {
     @Field(name = "content_type")
     private String contentType;
 
+    @Indexed(name = "key_unique", unique = true)
     @Field(name = "key")
     private String key;
 
@@ -37,6 +41,9 @@ public class Media {
     @Field(name = "status")
     private Status status;
 
+    @Field(name = "event_version")
+    private Long eventVersion;
+
     @CreatedDate
     @Field(name = "uploaded_at")
     private Instant uploadedAt;
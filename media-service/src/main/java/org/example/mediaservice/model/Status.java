@@ -1,5 +1,5 @@
 package org.example.mediaservice.model;
 
 public enum Status {
-    PENDING, APPROVED, DELETED
+    AWAITING_UPLOAD, PENDING, APPROVED, DELETED
 }
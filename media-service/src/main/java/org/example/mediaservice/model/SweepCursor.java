@@ -0,0 +1,12 @@
+package org.example.mediaservice.model;
+
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+
+public record SweepCursor(
+        @Field(name = "uploaded_at") Instant uploadedAt,
+        @Field(name = "media_id") String mediaId
+) {
+    public static final SweepCursor START = new SweepCursor(Instant.EPOCH, "");
+}
@@ -0,0 +1,32 @@
+package org.example.mediaservice.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+@Document(collection = "sweeper_state")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SweeperState {
+
+    @Id
+    private String name;
+
+    @Field(name = "owner")
+    private String owner;
+
+    @Field(name = "lease_until")
+    private Instant leaseUntil;
+
+    @Builder.Default
+    @Field(name = "cursors")
+    private Map<String, SweepCursor> cursors = new HashMap<>();
+}
@@ -2,12 +2,42 @@ package org.example.mediaservice.repository;
 
 import org.example.mediaservice.model.Media;
 import org.example.mediaservice.model.Status;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface MediaRepository extends MongoRepository<Media, String> {
     Optional<Media> findByKey(String key);
+
+    boolean existsByKeyAndStatusNot(String key, Status status);
+
+    @Query("{ 'key': ?0, 'status': ?1 }")
+    @Update("{ '$set': { 'status': ?2 } }")
+    long updateStatus(String key, Status expectedStatus, Status status);
+
+    // applies only while the media is in one of the expected statuses and has not seen a newer event
+    @Query("{ 'key': ?0, 'status': { $in: ?1 }, $or: [ { 'event_version': null }, { 'event_version': { $lte: ?3 } } ] }")
+    @Update("{ '$set': { 'status': ?2, 'event_version': ?3 } }")
+    long updateStatus(String key, Collection<Status> expectedStatuses, Status status, long version);
+
+    // a sweep claims its batch by moving what is still in the swept status to DELETED before touching storage
+    @Query("{ '_id': { $in: ?0 }, 'status': ?1 }")
+    @Update("{ '$set': { 'status': ?2 } }")
+    long updateStatus(Collection<String> ids, Status expectedStatus, Status status);
+
+    @Query(value = "{ '_id': { $in: ?0 }, 'status': ?1 }", fields = "{ 'key': 1 }")
+    List<Media> findAllByIdInAndStatus(Collection<String> ids, Status status);
+
+    // keyset page after the (uploaded_at, _id) cursor, sort by uploadedAt and id so ties are not skipped
+    @Query(value = "{ 'status': ?0, 'uploaded_at': { $lt: ?3 }, $or: [ { 'uploaded_at': { $gt: ?1 } }, { 'uploaded_at': ?1, '_id': { $gt: ?2 } } ] }",
+            fields = "{ 'key': 1, 'uploaded_at': 1 }")
+    List<Media> findSweepBatch(Status status, Instant afterUploadedAt, String afterId, Instant uploadedBefore, Pageable pageable);
 }
@@ -0,0 +1,9 @@
+package org.example.mediaservice.repository;
+
+import org.example.mediaservice.model.ProcessedEvent;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProcessedEventRepository extends MongoRepository<ProcessedEvent, String> {
+}
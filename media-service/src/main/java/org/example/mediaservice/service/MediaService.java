@@ -1,17 +1,25 @@
 package org.example.mediaservice.service;
 
 import org.example.mediaservice.dto.media.MediaResponse;
+import org.example.mediaservice.dto.media.UploadUrlRequest;
+import org.example.mediaservice.dto.media.UploadUrlResponse;
+import org.example.mediaservice.model.Media;
 import org.example.mediaservice.model.Status;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface MediaService {
-    MediaResponse uploadMedia(MultipartFile multipartFile) throws IOException;
-    void deleteMediaByKey(String key);
+    CompletableFuture<MediaResponse> uploadMedia(MultipartFile multipartFile) throws IOException;
+    UploadUrlResponse createUploadUrl(UploadUrlRequest request);
+    MediaResponse confirmUpload(String key);
+    CompletableFuture<Void> deleteMediaByKey(String key);
+    void deleteMediaByKey(String key, long version);
     MediaResponse getMediaWithPresignedUrl(String mediaId);
 
-    void updateMediaStatus(String action, String key);
+    void updateMediaStatus(Status status, String key, long version);
 
-    void deleteMedia(Status status);
+    int deleteMedia(List<Media> media, Status status);
 }
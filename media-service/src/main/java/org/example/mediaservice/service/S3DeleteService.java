@@ -0,0 +1,9 @@
+package org.example.mediaservice.service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public interface S3DeleteService {
+    CompletableFuture<Void> deleteObject(String key);
+    CompletableFuture<List<String>> deleteObjects(List<String> keys);
+}
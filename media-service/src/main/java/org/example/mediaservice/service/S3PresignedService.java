@@ -1,5 +1,12 @@
 package org.example.mediaservice.service;
 
+import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
+
+import java.util.Optional;
+
 public interface S3PresignedService {
     String generatePresignedUrl(String key);
+    Optional<String> findCachedPresignedUrl(String key);
+    void evictPresignedUrl(String key);
+    PresignedPutObjectRequest generatePresignedUpload(String key, String contentType, long contentLength);
 }
@@ -0,0 +1,8 @@
+package org.example.mediaservice.service;
+
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+
+public interface S3UploadService {
+    CompletableFuture<Void> upload(String key, String contentType, long size, InputStream content);
+}
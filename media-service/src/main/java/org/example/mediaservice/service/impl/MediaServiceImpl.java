@@ -4,117 +4,247 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.mediaservice.dto.error.ErrorCode;
 import org.example.mediaservice.dto.media.MediaResponse;
+import org.example.mediaservice.dto.media.UploadUrlRequest;
+import org.example.mediaservice.dto.media.UploadUrlResponse;
 import org.example.mediaservice.exception.BusinessException;
 import org.example.mediaservice.model.Media;
 import org.example.mediaservice.model.Status;
 import org.example.mediaservice.repository.MediaRepository;
 import org.example.mediaservice.service.MediaService;
-import org.example.mediaservice.service.S3PresignedService;
+import org.example.mediaservice.storage.MediaStorage;
+import org.example.mediaservice.storage.PresignedUpload;
+import org.example.mediaservice.storage.StoredObject;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
-import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
-import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class MediaServiceImpl implements MediaService {
-    private final S3Client s3Client;
+    // statuses a media may be in for an avatar event to move it to the given status
+    private static final Map<Status, List<Status>> PREVIOUS_STATUSES = Map.of(
+            Status.APPROVED, List.of(Status.PENDING, Status.APPROVED),
+            Status.DELETED, List.of(Status.PENDING, Status.APPROVED)
+    );
+
+    private final MediaStorage mediaStorage;
     private final MediaRepository mediaRepository;
-    private final S3PresignedService s3PresignedService;
 
-    @Value("${aws.s3.bucket-name}")
-    private String bucketName;
+    @Value("${app.s3.upload.max-direct-size}")
+    private long maxDirectUploadSize;
 
     @Override
-    @Transactional
-    public MediaResponse uploadMedia(MultipartFile multipartFile) throws IOException {
+    public CompletableFuture<MediaResponse> uploadMedia(MultipartFile multipartFile) throws IOException {
+        if (hasPathSeparator(multipartFile.getOriginalFilename())) {
+            throw new BusinessException(ErrorCode.INVALID_UPLOAD_REQUEST);
+        }
+
         String key = UUID.randomUUID() + "-" + multipartFile.getOriginalFilename();
+        InputStream content = multipartFile.getInputStream();
+
+        return mediaStorage.upload(key, multipartFile.getContentType(), multipartFile.getSize(), content)
+                .whenComplete((ignored, ex) -> closeQuietly(content))
+                .thenApply(ignored -> {
+                    Media media = Media.builder()
+                            .filename(multipartFile.getOriginalFilename())
+                            .contentType(multipartFile.getContentType())
+                            .key(key)
+                            .size(multipartFile.getSize())
+                            .status(Status.PENDING)
+                            .build();
+
+                    mediaRepository.save(media);
+
+                    return new MediaResponse(key, mediaStorage.getDownloadUrl(key));
+                });
+    }
 
-        s3Client.putObject(
-                PutObjectRequest.builder()
-                        .bucket(bucketName)
-                        .key(key)
-                        .contentType(multipartFile.getContentType())
-                        .build(),
-                RequestBody.fromBytes(multipartFile.getBytes())
-        );
+    @Override
+    public UploadUrlResponse createUploadUrl(UploadUrlRequest request) {
+        if (isBlank(request.filename()) || hasPathSeparator(request.filename())
+                || isBlank(request.contentType()) || request.size() <= 0) {
+            throw new BusinessException(ErrorCode.INVALID_UPLOAD_REQUEST);
+        }
+        if (request.size() > maxDirectUploadSize) {
+            throw new BusinessException(ErrorCode.FILE_TOO_LARGE);
+        }
+
+        String key = UUID.randomUUID() + "-" + request.filename();
 
         Media media = Media.builder()
-                .filename(multipartFile.getOriginalFilename())
-                .contentType(multipartFile.getContentType())
+                .filename(request.filename())
+                .contentType(request.contentType())
                 .key(key)
-                .size(multipartFile.getSize())
-                .status(Status.PENDING)
+                .size(request.size())
+                .status(Status.AWAITING_UPLOAD)
                 .build();
 
         mediaRepository.save(media);
 
-        return getMediaWithPresignedUrl(media.getKey());
+        PresignedUpload presignedUpload = mediaStorage.createUploadUrl(key, request.contentType(), request.size());
+
+        return new UploadUrlResponse(
+                key,
+                presignedUpload.url(),
+                presignedUpload.headers(),
+                presignedUpload.expiresAt()
+        );
     }
 
     @Override
-    @Transactional
-    public void deleteMediaByKey(String key) {
+    public MediaResponse confirmUpload(String key) {
         Media media = mediaRepository.findByKey(key)
                 .orElseThrow(() -> new BusinessException(ErrorCode.RESOURCE_NOT_FOUND, "Media not found with key: " + key));
 
-        deleteObjectFromS3(key);
+        if (media.getStatus() == Status.AWAITING_UPLOAD) {
+            verifyUploadedObject(media);
+
+            if (mediaRepository.updateStatus(key, Status.AWAITING_UPLOAD, Status.PENDING) > 0) {
+                log.info("Confirmed direct upload of media with key: {}", key);
+            }
+        }
+
+        return new MediaResponse(key, mediaStorage.getDownloadUrl(key));
+    }
 
-        mediaRepository.delete(media);
+    @Override
+    public CompletableFuture<Void> deleteMediaByKey(String key) {
+        Media media = mediaRepository.findByKey(key)
+                .orElseThrow(() -> new BusinessException(ErrorCode.RESOURCE_NOT_FOUND, "Media not found with key: " + key));
 
-        log.info("Deleted media with key: {}", key);
+        return removeMedia(media);
     }
 
     @Override
-    public MediaResponse getMediaWithPresignedUrl(String key) {
+    @Transactional
+    public void deleteMediaByKey(String key, long version) {
         Media media = mediaRepository.findByKey(key)
                 .orElseThrow(() -> new BusinessException(ErrorCode.RESOURCE_NOT_FOUND, "Media not found with key: " + key));
 
-        return new MediaResponse(key, s3PresignedService.generatePresignedUrl(media.getKey()));
+        if (isStale(media, version)) {
+            log.info("Ignoring delete of media with key {}: event version {} is older than {}", key, version, media.getEventVersion());
+            return;
+        }
+        await(removeMedia(media));
     }
 
     @Override
-    public void updateMediaStatus(String action, String key) {
-        mediaRepository.findByKey(key).ifPresent(media -> {
-            media.setStatus(Status.valueOf(action));
-            mediaRepository.save(media);
-        });
+    public MediaResponse getMediaWithPresignedUrl(String key) {
+        // deletes evict the url on every replica, so a cached url belongs to media that still exists
+        Optional<String> cachedUrl = mediaStorage.findCachedDownloadUrl(key);
+        if (cachedUrl.isPresent()) {
+            return new MediaResponse(key, cachedUrl.get());
+        }
+
+        if (!mediaRepository.existsByKeyAndStatusNot(key, Status.DELETED)) {
+            throw new BusinessException(ErrorCode.RESOURCE_NOT_FOUND, "Media not found with key: " + key);
+        }
+
+        return new MediaResponse(key, mediaStorage.getDownloadUrl(key));
     }
 
     @Override
-    public void deleteMedia(Status status) {
-        List<Media> mediaList = mediaRepository.findAll()
-                .stream()
-                .filter(media -> media.getStatus() == status)
+    public void updateMediaStatus(Status status, String key, long version) {
+        List<Status> previousStatuses = PREVIOUS_STATUSES.getOrDefault(status, List.of());
+        if (mediaRepository.updateStatus(key, previousStatuses, status, version) == 0) {
+            log.info("Ignoring status {} for media with key {}: it is missing, not in {} or already has an event newer than {}",
+                    status, key, previousStatuses, version);
+            return;
+        }
+        mediaStorage.evictDownloadUrl(key);
+    }
+
+    @Override
+    public int deleteMedia(List<Media> media, Status status) {
+        List<String> ids = media.stream()
+                .map(Media::getId)
+                .toList();
+        mediaRepository.updateStatus(ids, status, Status.DELETED);
+        List<Media> claimed = mediaRepository.findAllByIdInAndStatus(ids, Status.DELETED);
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        List<String> keys = claimed.stream()
+                .map(Media::getKey)
                 .toList();
+        keys.forEach(mediaStorage::evictDownloadUrl);
 
-        for (Media media : mediaList) {
-            try {
-                deleteObjectFromS3(media.getKey());
-            } catch (Exception e) {
-                log.error("Failed to delete S3 object with key {}: {}", media.getKey(), e.getMessage());
-            }
+        // media whose storage delete failed stay DELETED and are picked up by a later sweep
+        Set<String> deletedFromStorage = new HashSet<>(mediaStorage.delete(keys).join());
+        List<String> deletedIds = claimed.stream()
+                .filter(item -> deletedFromStorage.contains(item.getKey()))
+                .map(Media::getId)
+                .toList();
+
+        mediaRepository.deleteAllById(deletedIds);
+        return deletedIds.size();
+    }
+
+    private void verifyUploadedObject(Media media) {
+        StoredObject stored = mediaStorage.find(media.getKey())
+                .orElseThrow(() -> new BusinessException(ErrorCode.UPLOAD_NOT_COMPLETED));
+
+        boolean contentTypeMismatch = stored.contentType() != null && !media.getContentType().equals(stored.contentType());
+        if (stored.size() != media.getSize() || contentTypeMismatch) {
+            log.warn("Uploaded object {} does not match the requested upload: {} bytes of {}",
+                    media.getKey(), stored.size(), stored.contentType());
+            await(removeMedia(media));
+            throw new BusinessException(ErrorCode.UPLOAD_MISMATCH);
         }
+    }
 
-        mediaRepository.deleteAll(mediaList);
-        log.info("Deleted {} media records with status {}", mediaList.size(), status);
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
     }
 
-    private void deleteObjectFromS3(String key) {
-        s3Client.deleteObject(DeleteObjectRequest.builder()
-                .bucket(bucketName)
-                .key(key)
-                .build());
+    // the filename ends up in the object key, which has to stay a single path segment in download urls
+    private static boolean hasPathSeparator(String filename) {
+        return filename != null && (filename.contains("/") || filename.contains("\\"));
+    }
+
+    // evicted once the record is gone, so a replica that misses its cache in between cannot sign the url again
+    private CompletableFuture<Void> removeMedia(Media media) {
+        return mediaStorage.delete(media.getKey()).thenRun(() -> {
+            mediaRepository.delete(media);
+            mediaStorage.evictDownloadUrl(media.getKey());
+            log.info("Deleted media with key: {}", media.getKey());
+        });
+    }
 
-        log.info("Deleted S3 object with key: {}", key);
+    private boolean isStale(Media media, long version) {
+        return media.getEventVersion() != null && version < media.getEventVersion();
+    }
+
+    private static void await(CompletableFuture<Void> future) {
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static void closeQuietly(InputStream content) {
+        try {
+            content.close();
+        } catch (IOException e) {
+            log.warn("Failed to close upload stream: {}", e.getMessage());
+        }
     }
 }
@@ -0,0 +1,92 @@
+package org.example.mediaservice.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.mediaservice.service.S3DeleteService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.Delete;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.S3Error;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "s3", matchIfMissing = true)
+public class S3DeleteServiceImpl implements S3DeleteService {
+    static final int MAX_KEYS_PER_REQUEST = 1000;
+
+    private final S3AsyncClient s3AsyncClient;
+    private final ExecutorService s3Executor;
+    private final String bucketName;
+
+    public S3DeleteServiceImpl(S3AsyncClient s3AsyncClient,
+                               @Qualifier("s3Executor") ExecutorService s3Executor,
+                               @Value("${aws.s3.bucket-name}") String bucketName) {
+        this.s3AsyncClient = s3AsyncClient;
+        this.s3Executor = s3Executor;
+        this.bucketName = bucketName;
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteObject(String key) {
+        return s3AsyncClient.deleteObject(DeleteObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .build())
+                .thenAcceptAsync(response -> log.info("Deleted S3 object with key: {}", key), s3Executor);
+    }
+
+    // completes with the keys S3 confirmed, keys it reported errors for are left out
+    @Override
+    public CompletableFuture<List<String>> deleteObjects(List<String> keys) {
+        List<CompletableFuture<List<String>>> chunks = new ArrayList<>();
+        for (int from = 0; from < keys.size(); from += MAX_KEYS_PER_REQUEST) {
+            chunks.add(deleteChunk(keys.subList(from, Math.min(from + MAX_KEYS_PER_REQUEST, keys.size()))));
+        }
+
+        return CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new))
+                .thenApplyAsync(ignored -> chunks.stream()
+                        .flatMap(chunk -> chunk.join().stream())
+                        .toList(), s3Executor);
+    }
+
+    private CompletableFuture<List<String>> deleteChunk(List<String> keys) {
+        List<ObjectIdentifier> objects = keys.stream()
+                .map(key -> ObjectIdentifier.builder().key(key).build())
+                .toList();
+
+        // quiet mode only lists failures, so the response stays small for large batches
+        return s3AsyncClient.deleteObjects(DeleteObjectsRequest.builder()
+                        .bucket(bucketName)
+                        .delete(Delete.builder().objects(objects).quiet(true).build())
+                        .build())
+                .thenApply(response -> deletedKeys(keys, response));
+    }
+
+    private static List<String> deletedKeys(List<String> keys, DeleteObjectsResponse response) {
+        if (!response.hasErrors() || response.errors().isEmpty()) {
+            return keys;
+        }
+
+        response.errors().forEach(error ->
+                log.error("Failed to delete S3 object with key {}: {} {}", error.key(), error.code(), error.message()));
+        Set<String> failed = response.errors().stream()
+                .map(S3Error::key)
+                .collect(Collectors.toSet());
+        return keys.stream()
+                .filter(key -> !failed.contains(key))
+                .toList();
+    }
+}
@@ -1,33 +1,98 @@
 package org.example.mediaservice.service.impl;
 
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.example.mediaservice.service.S3PresignedService;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
 import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
 
 import java.time.Duration;
+import java.util.Optional;
 
 @Service
-@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "s3", matchIfMissing = true)
 public class S3PresignedServiceImpl implements S3PresignedService {
+    private static final Duration SIGNATURE_DURATION = Duration.ofHours(48);
+
     private final S3Presigner presigner;
+    private final LoadingCache<String, String> presignedUrls;
 
     @Value("${aws.s3.bucket-name}")
     private String bucketName;
 
+    @Value("${app.s3.upload.presigned-put-ttl}")
+    private long presignedPutTtl;
+
+    // entries are refreshed and expire long before the 48 hour signature does, so a cached url is always usable
+    public S3PresignedServiceImpl(S3Presigner presigner,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.s3.presigned-url-cache.refresh-after}") long refreshAfter,
+                                  @Value("${app.s3.presigned-url-cache.expire-after}") long expireAfter,
+                                  @Value("${app.s3.presigned-url-cache.max-size}") long maxSize) {
+        this.presigner = presigner;
+        this.presignedUrls = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .refreshAfterWrite(Duration.ofMillis(refreshAfter))
+                .expireAfterWrite(Duration.ofMillis(expireAfter))
+                .recordStats()
+                .build(this::presignGetObject);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, presignedUrls, "presignedUrls");
+    }
+
     @Override
     public String generatePresignedUrl(String key) {
+        return presignedUrls.get(key);
+    }
+
+    @Override
+    public Optional<String> findCachedPresignedUrl(String key) {
+        return Optional.ofNullable(presignedUrls.getIfPresent(key));
+    }
+
+    @Override
+    public void evictPresignedUrl(String key) {
+        presignedUrls.invalidate(key);
+    }
+
+    // content type and length are part of the signature, so S3 rejects a PUT with anything else
+    @Override
+    public PresignedPutObjectRequest generatePresignedUpload(String key, String contentType, long contentLength) {
+        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .contentLength(contentLength)
+                .build();
+
+        PutObjectPresignRequest putObjectPresignRequest = PutObjectPresignRequest.builder()
+                .signatureDuration(Duration.ofMillis(presignedPutTtl))
+                .putObjectRequest(putObjectRequest)
+                .build();
+
+        return presigner.presignPutObject(putObjectPresignRequest);
+    }
+
+    private String presignGetObject(String key) {
+        // objects are never overwritten under the same key, so browsers and CDNs may keep the bytes as long as the url lives
         GetObjectRequest getObjectRequest = GetObjectRequest.builder()
                 .bucket(bucketName)
                 .key(key)
+                .responseCacheControl("public, max-age=" + SIGNATURE_DURATION.toSeconds())
                 .build();
 
         GetObjectPresignRequest getObjectPresignRequest = GetObjectPresignRequest.builder()
-                .signatureDuration(Duration.ofHours(48))
+                .signatureDuration(SIGNATURE_DURATION)
                 .getObjectRequest(getObjectRequest)
                 .build();
 
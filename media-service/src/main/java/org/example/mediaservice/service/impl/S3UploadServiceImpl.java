@@ -0,0 +1,46 @@
+package org.example.mediaservice.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.mediaservice.service.S3UploadService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "s3", matchIfMissing = true)
+public class S3UploadServiceImpl implements S3UploadService {
+    private final S3AsyncClient s3AsyncClient;
+    private final ExecutorService s3Executor;
+    private final String bucketName;
+
+    public S3UploadServiceImpl(S3AsyncClient s3AsyncClient,
+                               @Qualifier("s3Executor") ExecutorService s3Executor,
+                               @Value("${aws.s3.bucket-name}") String bucketName) {
+        this.s3AsyncClient = s3AsyncClient;
+        this.s3Executor = s3Executor;
+        this.bucketName = bucketName;
+    }
+
+    // streams the content, files above the multipart threshold go up as parallel parts inside the client
+    @Override
+    public CompletableFuture<Void> upload(String key, String contentType, long size, InputStream content) {
+        PutObjectRequest request = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .contentLength(size)
+                .build();
+
+        return s3AsyncClient.putObject(request, AsyncRequestBody.fromInputStream(content, size, s3Executor))
+                .thenAcceptAsync(response -> log.info("Uploaded {} ({} bytes)", key, size), s3Executor);
+    }
+}
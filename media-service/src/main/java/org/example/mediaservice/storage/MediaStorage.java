@@ -0,0 +1,19 @@
+package org.example.mediaservice.storage;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+public interface MediaStorage {
+    CompletableFuture<Void> upload(String key, String contentType, long size, InputStream content);
+    CompletableFuture<Void> delete(String key);
+    CompletableFuture<List<String>> delete(List<String> keys);
+    Optional<StoredObject> find(String key);
+
+    String getDownloadUrl(String key);
+    Optional<String> findCachedDownloadUrl(String key);
+    void evictDownloadUrl(String key);
+
+    PresignedUpload createUploadUrl(String key, String contentType, long size);
+}
@@ -0,0 +1,11 @@
+package org.example.mediaservice.storage;
+
+import java.time.Instant;
+import java.util.Map;
+
+public record PresignedUpload(
+        String url,
+        Map<String, String> headers,
+        Instant expiresAt
+) {
+}
@@ -0,0 +1,8 @@
+package org.example.mediaservice.storage;
+
+// contentType is null when the backend does not keep it
+public record StoredObject(
+        long size,
+        String contentType
+) {
+}
@@ -0,0 +1,228 @@
+package org.example.mediaservice.storage.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.mediaservice.dto.error.ErrorCode;
+import org.example.mediaservice.exception.BusinessException;
+import org.example.mediaservice.storage.MediaStorage;
+import org.example.mediaservice.storage.PresignedUpload;
+import org.example.mediaservice.storage.StoredObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URLEncoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "local")
+public class LocalMediaStorage implements MediaStorage {
+    public static final String FILES_PATH = "/api/v1/media/files/";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final Path root;
+    private final String baseUrl;
+    private final SecretKeySpec signingKey;
+    private final Duration downloadTtl;
+    private final Duration uploadTtl;
+
+    public LocalMediaStorage(@Value("${app.storage.local.root}") String root,
+                             @Value("${app.storage.local.base-url}") String baseUrl,
+                             @Value("${app.storage.local.signing-key}") String signingKey,
+                             @Value("${app.storage.local.download-ttl}") long downloadTtl,
+                             @Value("${app.storage.local.upload-ttl}") long uploadTtl) {
+        this.root = Path.of(root).toAbsolutePath().normalize();
+        this.baseUrl = baseUrl;
+        this.signingKey = new SecretKeySpec(signingKeyBytes(signingKey), HMAC_ALGORITHM);
+        this.downloadTtl = Duration.ofMillis(downloadTtl);
+        this.uploadTtl = Duration.ofMillis(uploadTtl);
+
+        try {
+            Files.createDirectories(this.root);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create media storage directory " + this.root, e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> upload(String key, String contentType, long size, InputStream content) {
+        try {
+            write(key, size, Channels.newChannel(content));
+            return CompletableFuture.completedFuture(null);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(new UncheckedIOException(e));
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(String key) {
+        try {
+            Files.deleteIfExists(resolve(key));
+            return CompletableFuture.completedFuture(null);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(new UncheckedIOException(e));
+        }
+    }
+
+    @Override
+    public CompletableFuture<List<String>> delete(List<String> keys) {
+        List<String> deleted = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            try {
+                Files.deleteIfExists(resolve(key));
+                deleted.add(key);
+            } catch (IOException | BusinessException e) {
+                log.error("Failed to delete media file with key {}: {}", key, e.getMessage());
+            }
+        }
+        return CompletableFuture.completedFuture(deleted);
+    }
+
+    @Override
+    public Optional<StoredObject> find(String key) {
+        Path file = resolve(key);
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new StoredObject(Files.size(file), null));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public String getDownloadUrl(String key) {
+        long expires = Instant.now().plus(downloadTtl).getEpochSecond();
+        return fileUrl(key, expires, sign("GET", key, String.valueOf(expires)));
+    }
+
+    @Override
+    public Optional<String> findCachedDownloadUrl(String key) {
+        return Optional.empty();
+    }
+
+    @Override
+    public void evictDownloadUrl(String key) {
+        // download urls are signed on every request, there is no cache to evict
+    }
+
+    // content type and length are part of the signature, like with a SigV4 presigned PUT
+    @Override
+    public PresignedUpload createUploadUrl(String key, String contentType, long size) {
+        Instant expiresAt = Instant.now().plus(uploadTtl);
+        long expires = expiresAt.getEpochSecond();
+        String signature = sign("PUT", key, contentType, String.valueOf(size), String.valueOf(expires));
+
+        return new PresignedUpload(
+                fileUrl(key, expires, signature),
+                Map.of(HttpHeaders.CONTENT_TYPE, contentType),
+                expiresAt
+        );
+    }
+
+    public Path verifyDownload(String key, long expires, String signature) {
+        verify(expires, signature, sign("GET", key, String.valueOf(expires)));
+        Path file = resolve(key);
+        if (!Files.isRegularFile(file)) {
+            throw new BusinessException(ErrorCode.RESOURCE_NOT_FOUND, "Media not found with key: " + key);
+        }
+        return file;
+    }
+
+    public void verifyUpload(String key, String contentType, long size, long expires, String signature) {
+        verify(expires, signature, sign("PUT", key, contentType, String.valueOf(size), String.valueOf(expires)));
+    }
+
+    // written to a temporary file first, so readers never see a partial file under the key
+    public void write(String key, long size, ReadableByteChannel source) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                long position = 0;
+                while (position < size) {
+                    long transferred = channel.transferFrom(source, position, size - position);
+                    if (transferred <= 0) {
+                        break;
+                    }
+                    position += transferred;
+                }
+                if (position != size) {
+                    throw new IOException("Expected " + size + " bytes for " + key + " but got " + position);
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Path resolve(String key) {
+        Path file = root.resolve(key).normalize();
+        if (!file.startsWith(root) || file.equals(root)) {
+            throw new BusinessException(ErrorCode.RESOURCE_NOT_FOUND, "Media not found with key: " + key);
+        }
+        return file;
+    }
+
+    private void verify(long expires, String signature, String expected) {
+        boolean valid = signature != null && MessageDigest.isEqual(
+                expected.getBytes(StandardCharsets.US_ASCII), signature.getBytes(StandardCharsets.US_ASCII));
+        if (!valid || Instant.now().getEpochSecond() > expires) {
+            throw new BusinessException(ErrorCode.INVALID_SIGNATURE);
+        }
+    }
+
+    private String fileUrl(String key, long expires, String signature) {
+        return baseUrl + FILES_PATH + URLEncoder.encode(key, StandardCharsets.UTF_8).replace("+", "%20")
+                + "?expires=" + expires + "&signature=" + signature;
+    }
+
+    // Mac instances are not thread safe and cheap to create
+    private String sign(String... parts) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(signingKey);
+            byte[] digest = mac.doFinal(String.join("\n", parts).getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to sign media url", e);
+        }
+    }
+
+    private static byte[] signingKeyBytes(String signingKey) {
+        if (signingKey != null && !signingKey.isBlank()) {
+            return signingKey.getBytes(StandardCharsets.UTF_8);
+        }
+        log.warn("No media url signing key configured, using a random one, urls will not survive a restart");
+        byte[] random = new byte[32];
+        new SecureRandom().nextBytes(random);
+        return random;
+    }
+}
@@ -0,0 +1,106 @@
+package org.example.mediaservice.storage.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.example.mediaservice.kafka.eviction.DownloadUrlEvictionPublisher;
+import org.example.mediaservice.service.S3DeleteService;
+import org.example.mediaservice.service.S3PresignedService;
+import org.example.mediaservice.service.S3UploadService;
+import org.example.mediaservice.storage.MediaStorage;
+import org.example.mediaservice.storage.PresignedUpload;
+import org.example.mediaservice.storage.StoredObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "s3", matchIfMissing = true)
+public class S3MediaStorage implements MediaStorage {
+    private final S3Client s3Client;
+    private final S3UploadService s3UploadService;
+    private final S3DeleteService s3DeleteService;
+    private final S3PresignedService s3PresignedService;
+    private final DownloadUrlEvictionPublisher downloadUrlEvictionPublisher;
+
+    @Value("${aws.s3.bucket-name}")
+    private String bucketName;
+
+    @Override
+    public CompletableFuture<Void> upload(String key, String contentType, long size, InputStream content) {
+        return s3UploadService.upload(key, contentType, size, content);
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(String key) {
+        return s3DeleteService.deleteObject(key);
+    }
+
+    @Override
+    public CompletableFuture<List<String>> delete(List<String> keys) {
+        return s3DeleteService.deleteObjects(keys);
+    }
+
+    @Override
+    public Optional<StoredObject> find(String key) {
+        try {
+            HeadObjectResponse head = s3Client.headObject(HeadObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .build());
+            return Optional.of(new StoredObject(head.contentLength(), head.contentType()));
+        } catch (S3Exception e) {
+            if (e.statusCode() == HttpStatus.NOT_FOUND.value()) {
+                return Optional.empty();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public String getDownloadUrl(String key) {
+        return s3PresignedService.generatePresignedUrl(key);
+    }
+
+    @Override
+    public Optional<String> findCachedDownloadUrl(String key) {
+        return s3PresignedService.findCachedPresignedUrl(key);
+    }
+
+    // evicted here right away, the other replicas drop it when the eviction reaches them
+    @Override
+    public void evictDownloadUrl(String key) {
+        s3PresignedService.evictPresignedUrl(key);
+        downloadUrlEvictionPublisher.publish(key);
+    }
+
+    @Override
+    public PresignedUpload createUploadUrl(String key, String contentType, long size) {
+        PresignedPutObjectRequest presigned = s3PresignedService.generatePresignedUpload(key, contentType, size);
+
+        return new PresignedUpload(
+                presigned.url().toExternalForm(),
+                toRequiredHeaders(presigned.signedHeaders()),
+                presigned.expiration()
+        );
+    }
+
+    private static Map<String, String> toRequiredHeaders(Map<String, List<String>> signedHeaders) {
+        return signedHeaders.entrySet().stream()
+                .filter(header -> !header.getKey().equalsIgnoreCase(HttpHeaders.HOST))
+                .collect(Collectors.toMap(Map.Entry::getKey, header -> String.join(",", header.getValue())));
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.mediaservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.mediaservice.event.AvatarEvent;
+import org.example.mediaservice.kafka.codec.AvatarEventCodec;
+import org.example.mediaservice.model.Status;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares encode/decode cost of the legacy Jackson JSON avatar event with the protobuf envelope.
+ * Payload sizes are printed before the run.
+ * <p>
+ * Run with: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.example.mediaservice.benchmark.AvatarEventCodecBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AvatarEventCodecBenchmark {
+    private ObjectMapper objectMapper;
+    private AvatarEventCodec codec;
+    private AvatarEvent event;
+    private byte[] jsonPayload;
+    private byte[] protobufPayload;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = new ObjectMapper();
+        codec = new AvatarEventCodec(objectMapper);
+        event = sampleEvent();
+        jsonPayload = objectMapper.writeValueAsBytes(event);
+        protobufPayload = codec.encode(event);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() throws Exception {
+        return objectMapper.writeValueAsBytes(event);
+    }
+
+    @Benchmark
+    public byte[] encodeProtobuf() {
+        return codec.encode(event);
+    }
+
+    @Benchmark
+    public AvatarEvent decodeJson() {
+        return codec.decode(jsonPayload);
+    }
+
+    @Benchmark
+    public AvatarEvent decodeProtobuf() {
+        return codec.decode(protobufPayload);
+    }
+
+    private static AvatarEvent sampleEvent() {
+        return new AvatarEvent(UUID.randomUUID().toString(), System.currentTimeMillis(), Status.DELETED,
+                UUID.randomUUID() + "-avatar.png");
+    }
+
+    public static void main(String[] args) throws Exception {
+        AvatarEvent event = sampleEvent();
+        System.out.printf("Payload size: json=%d bytes, protobuf=%d bytes%n",
+                new ObjectMapper().writeValueAsBytes(event).length,
+                new AvatarEventCodec(new ObjectMapper()).encode(event).length);
+
+        Options options = new OptionsBuilder()
+                .include(AvatarEventCodecBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
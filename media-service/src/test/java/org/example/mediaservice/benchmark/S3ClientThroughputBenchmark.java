@@ -0,0 +1,151 @@
+package org.example.mediaservice.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Compares the blocking {@link S3Client} with the CRT-based {@link S3AsyncClient} for batches of concurrent PUTs.
+ * The sync client gets one thread per in-flight request, the way Tomcat workers used to call it,
+ * the async client keeps the whole batch in flight from a single thread.
+ * <p>
+ * The S3 stand-in is a local HTTP server that drains each body and answers after a fixed delay,
+ * which plays the part of the S3 round trip.
+ * <p>
+ * Run with: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.example.mediaservice.benchmark.S3ClientThroughputBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class S3ClientThroughputBenchmark {
+    private static final String BUCKET = "benchmark";
+    private static final int OBJECT_SIZE = 64 * 1024;
+    private static final long LATENCY_MILLIS = 20;
+
+    @Param({"16", "64"})
+    public int concurrency;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private ScheduledExecutorService responder;
+    private ExecutorService requestThreads;
+    private S3Client s3Client;
+    private S3AsyncClient s3AsyncClient;
+    private byte[] object;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        serverExecutor = Executors.newCachedThreadPool();
+        responder = Executors.newScheduledThreadPool(4);
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+        server.createContext("/", this::handle);
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        URI endpoint = URI.create("http://localhost:" + server.getAddress().getPort());
+        StaticCredentialsProvider credentials = StaticCredentialsProvider.create(AwsBasicCredentials.create("test", "test"));
+
+        s3Client = S3Client.builder()
+                .endpointOverride(endpoint)
+                .forcePathStyle(true)
+                .region(Region.US_EAST_1)
+                .credentialsProvider(credentials)
+                .build();
+        s3AsyncClient = S3AsyncClient.crtBuilder()
+                .endpointOverride(endpoint)
+                .forcePathStyle(true)
+                .region(Region.US_EAST_1)
+                .credentialsProvider(credentials)
+                .checksumValidationEnabled(false)
+                .maxConcurrency(concurrency)
+                .build();
+
+        requestThreads = Executors.newFixedThreadPool(concurrency);
+        object = new byte[OBJECT_SIZE];
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        s3Client.close();
+        s3AsyncClient.close();
+        requestThreads.shutdownNow();
+        server.stop(0);
+        responder.shutdownNow();
+        serverExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public void syncClient() throws Exception {
+        List<Future<?>> puts = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            PutObjectRequest request = putRequest(i);
+            puts.add(requestThreads.submit(() -> s3Client.putObject(request, RequestBody.fromBytes(object))));
+        }
+        for (Future<?> put : puts) {
+            put.get();
+        }
+    }
+
+    @Benchmark
+    public void asyncClient() {
+        CompletableFuture<?>[] puts = new CompletableFuture[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            puts[i] = s3AsyncClient.putObject(putRequest(i), AsyncRequestBody.fromBytes(object));
+        }
+        CompletableFuture.allOf(puts).join();
+    }
+
+    private PutObjectRequest putRequest(int i) {
+        return PutObjectRequest.builder()
+                .bucket(BUCKET)
+                .key("object-" + i)
+                .contentLength((long) OBJECT_SIZE)
+                .build();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            body.transferTo(OutputStream.nullOutputStream());
+        }
+        responder.schedule(() -> {
+            try (exchange) {
+                exchange.getResponseHeaders().add("ETag", "\"benchmark\"");
+                exchange.sendResponseHeaders(200, -1);
+            } catch (IOException e) {
+                // the client gave up on this request
+            }
+        }, LATENCY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(S3ClientThroughputBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,157 @@
+package org.example.mediaservice.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.example.mediaservice.service.impl.S3UploadServiceImpl;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the legacy upload path (whole file read into a byte array, then RequestBody.fromBytes on the blocking client)
+ * with {@link S3UploadServiceImpl}, which streams the file into the CRT client with AsyncRequestBody.fromInputStream.
+ * The S3 stand-in is a local HTTP server that drains every body and answers right away, multipart calls included.
+ * The source file sits on disk, the way Tomcat spools multipart uploads.
+ * <p>
+ * Heap allocation per upload is the {@code gc.alloc.rate.norm} row of the GC profiler output. The CRT client buffers
+ * parts in native memory, which the GC profiler does not see.
+ * <p>
+ * Run with: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.example.mediaservice.benchmark.S3UploadBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class S3UploadBenchmark {
+    private static final String BUCKET = "benchmark";
+    private static final long MULTIPART_THRESHOLD = 8 * 1024 * 1024;
+    private static final long PART_SIZE = 5 * 1024 * 1024;
+
+    @Param({"1048576", "10485760"})
+    public int fileSize;
+
+    private Path file;
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private ExecutorService executor;
+    private S3Client s3Client;
+    private S3AsyncClient s3AsyncClient;
+    private S3UploadServiceImpl uploadService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("upload-benchmark", ".bin");
+        Files.write(file, new byte[fileSize]);
+
+        serverExecutor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+        server.createContext("/", S3UploadBenchmark::handle);
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        URI endpoint = URI.create("http://localhost:" + server.getAddress().getPort());
+        StaticCredentialsProvider credentials = StaticCredentialsProvider.create(AwsBasicCredentials.create("test", "test"));
+
+        s3Client = S3Client.builder()
+                .endpointOverride(endpoint)
+                .forcePathStyle(true)
+                .region(Region.US_EAST_1)
+                .credentialsProvider(credentials)
+                .build();
+        s3AsyncClient = S3AsyncClient.crtBuilder()
+                .endpointOverride(endpoint)
+                .forcePathStyle(true)
+                .region(Region.US_EAST_1)
+                .credentialsProvider(credentials)
+                .checksumValidationEnabled(false)
+                .thresholdInBytes(MULTIPART_THRESHOLD)
+                .minimumPartSizeInBytes(PART_SIZE)
+                .build();
+
+        executor = Executors.newFixedThreadPool(4);
+        uploadService = new S3UploadServiceImpl(s3AsyncClient, executor, BUCKET);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        s3Client.close();
+        s3AsyncClient.close();
+        executor.shutdownNow();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void legacyBuffered() throws IOException {
+        byte[] bytes;
+        try (InputStream content = Files.newInputStream(file)) {
+            bytes = content.readAllBytes();
+        }
+        s3Client.putObject(PutObjectRequest.builder().bucket(BUCKET).key("legacy").build(), RequestBody.fromBytes(bytes));
+    }
+
+    @Benchmark
+    public void streamed() throws IOException {
+        try (InputStream content = Files.newInputStream(file)) {
+            uploadService.upload("streamed", "application/octet-stream", fileSize, content).join();
+        }
+    }
+
+    // answers PutObject, UploadPart and the create and complete calls of a multipart upload
+    private static void handle(HttpExchange exchange) throws IOException {
+        try (exchange; InputStream body = exchange.getRequestBody()) {
+            body.transferTo(OutputStream.nullOutputStream());
+
+            String query = exchange.getRequestURI().getRawQuery();
+            exchange.getResponseHeaders().add("ETag", "\"benchmark\"");
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+
+            String key = exchange.getRequestURI().getPath().substring(BUCKET.length() + 2);
+            String result = query != null && query.contains("uploadId")
+                    ? "<CompleteMultipartUploadResult><Bucket>" + BUCKET + "</Bucket><Key>" + key
+                    + "</Key><ETag>\"benchmark\"</ETag></CompleteMultipartUploadResult>"
+                    : "<InitiateMultipartUploadResult><Bucket>" + BUCKET + "</Bucket><Key>" + key
+                    + "</Key><UploadId>benchmark</UploadId></InitiateMultipartUploadResult>";
+            byte[] response = result.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length);
+            exchange.getResponseBody().write(response);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(S3UploadBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,134 @@
+package org.example.mediaservice.cleanup;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.mediaservice.model.Media;
+import org.example.mediaservice.model.Status;
+import org.example.mediaservice.model.SweepCursor;
+import org.example.mediaservice.repository.MediaRepository;
+import org.example.mediaservice.service.MediaService;
+import org.example.mediaservice.service.impl.MediaServiceImpl;
+import org.example.mediaservice.storage.MediaStorage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MediaSweeperTests {
+    private MediaRepository mediaRepository;
+    private MediaService mediaService;
+    private SweeperLease sweeperLease;
+    private SimpleMeterRegistry meterRegistry;
+    private MediaSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        mediaRepository = mock(MediaRepository.class);
+        mediaService = mock(MediaService.class);
+        sweeperLease = mock(SweeperLease.class);
+        meterRegistry = new SimpleMeterRegistry();
+        sweeper = new MediaSweeper(mediaRepository, mediaService, sweeperLease, meterRegistry,
+                2, 3600000, 1000, 1000);
+
+        when(sweeperLease.tryAcquire()).thenReturn(true);
+        when(sweeperLease.findCursor(any(Status.class))).thenReturn(SweepCursor.START);
+        when(sweeperLease.saveCursor(any(Status.class), any(SweepCursor.class))).thenReturn(true);
+        when(mediaRepository.findSweepBatch(any(Status.class), any(Instant.class), anyString(), any(Instant.class), any(Pageable.class)))
+                .thenReturn(List.of());
+        when(mediaService.deleteMedia(anyList(), any(Status.class))).thenAnswer(invocation -> invocation.getArgument(0, List.class).size());
+    }
+
+    @Test
+    void givenLeaseHeldElsewhere_whenSweep_thenDoesNothing() throws InterruptedException {
+        when(sweeperLease.tryAcquire()).thenReturn(false);
+
+        sweeper.sweep();
+
+        verifyNoInteractions(mediaRepository, mediaService);
+    }
+
+    @Test
+    void givenOrphanedMedia_whenSweep_thenDeletesInBatchesOlderThanGracePeriod() throws InterruptedException {
+        Media media1 = media("id1", 1);
+        Media media2 = media("id2", 2);
+        Media media3 = media("id3", 3);
+        when(mediaRepository.findSweepBatch(eq(Status.PENDING), any(Instant.class), anyString(), any(Instant.class), any(Pageable.class)))
+                .thenReturn(List.of(media1, media2), List.of(media3));
+
+        sweeper.sweep();
+
+        ArgumentCaptor<Instant> uploadedBefore = ArgumentCaptor.forClass(Instant.class);
+        verify(mediaRepository).findSweepBatch(eq(Status.PENDING), eq(Instant.EPOCH), eq(""), uploadedBefore.capture(), any(Pageable.class));
+        verify(mediaRepository).findSweepBatch(eq(Status.PENDING), eq(Instant.ofEpochSecond(2)), eq("id2"), any(Instant.class), any(Pageable.class));
+        assertTrue(uploadedBefore.getValue().isBefore(Instant.now().minus(59, ChronoUnit.MINUTES)));
+
+        verify(mediaService).deleteMedia(List.of(media1, media2), Status.PENDING);
+        verify(mediaService).deleteMedia(List.of(media3), Status.PENDING);
+        verify(sweeperLease).saveCursor(Status.PENDING, new SweepCursor(Instant.ofEpochSecond(2), "id2"));
+        verify(sweeperLease).saveCursor(Status.PENDING, new SweepCursor(Instant.ofEpochSecond(3), "id3"));
+        verify(sweeperLease).saveCursor(Status.PENDING, SweepCursor.START);
+        verify(mediaRepository).findSweepBatch(eq(Status.AWAITING_UPLOAD), any(Instant.class), anyString(), any(Instant.class), any(Pageable.class));
+        verify(mediaRepository).findSweepBatch(eq(Status.DELETED), any(Instant.class), anyString(), any(Instant.class), any(Pageable.class));
+        assertEquals(3.0, meterRegistry.get("media.cleanup.deleted").tag("status", "PENDING").counter().count());
+    }
+
+    @Test
+    void givenPersistedCursor_whenSweep_thenResumesFromIt() throws InterruptedException {
+        SweepCursor cursor = new SweepCursor(Instant.ofEpochSecond(10), "id10");
+        when(sweeperLease.findCursor(Status.PENDING)).thenReturn(cursor);
+
+        sweeper.sweep();
+
+        verify(mediaRepository).findSweepBatch(eq(Status.PENDING), eq(Instant.ofEpochSecond(10)), eq("id10"), any(Instant.class), any(Pageable.class));
+    }
+
+    @Test
+    void givenLeaseLostMidSweep_whenSweep_thenStops() throws InterruptedException {
+        when(mediaRepository.findSweepBatch(eq(Status.PENDING), any(Instant.class), anyString(), any(Instant.class), any(Pageable.class)))
+                .thenReturn(List.of(media("id1", 1), media("id2", 2)));
+        when(sweeperLease.saveCursor(any(Status.class), any(SweepCursor.class))).thenReturn(false);
+
+        sweeper.sweep();
+
+        verify(mediaService, times(1)).deleteMedia(anyList(), any(Status.class));
+        verify(mediaRepository, never()).findSweepBatch(eq(Status.AWAITING_UPLOAD), any(Instant.class), anyString(), any(Instant.class), any(Pageable.class));
+    }
+
+    @Test
+    void givenMediaApprovedBetweenReadAndDelete_whenSweep_thenOnlyStillPendingMediaDeleted() throws InterruptedException {
+        MediaStorage mediaStorage = mock(MediaStorage.class);
+        sweeper = new MediaSweeper(mediaRepository, new MediaServiceImpl(mediaStorage, mediaRepository), sweeperLease,
+                meterRegistry, 2, 3600000, 1000, 1000);
+        Media pending = media("id1", 1);
+        Media approved = media("id2", 2);
+        when(mediaRepository.findSweepBatch(eq(Status.PENDING), any(Instant.class), anyString(), any(Instant.class), any(Pageable.class)))
+                .thenReturn(List.of(pending, approved), List.of());
+        // id2 was approved after the batch was read, so the claim only moves id1 to DELETED
+        when(mediaRepository.findAllByIdInAndStatus(List.of("id1", "id2"), Status.DELETED)).thenReturn(List.of(pending));
+        when(mediaStorage.delete(anyList()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(invocation.getArgument(0)));
+
+        sweeper.sweep();
+
+        verify(mediaRepository).updateStatus(List.of("id1", "id2"), Status.PENDING, Status.DELETED);
+        verify(mediaStorage).delete(List.of("key-id1"));
+        verify(mediaRepository).deleteAllById(List.of("id1"));
+        assertEquals(1.0, meterRegistry.get("media.cleanup.deleted").tag("status", "PENDING").counter().count());
+    }
+
+    private static Media media(String id, long uploadedAtSeconds) {
+        return Media.builder()
+                .id(id)
+                .key("key-" + id)
+                .status(Status.PENDING)
+                .uploadedAt(Instant.ofEpochSecond(uploadedAtSeconds))
+                .build();
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.mediaservice.cleanup;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTests {
+
+    @Test
+    void givenFullBucket_whenAcquireBurst_thenDoesNotWait() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(10, 100);
+
+        long startedAt = System.nanoTime();
+        bucket.acquire(100);
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt) < 50);
+    }
+
+    @Test
+    void givenEmptyBucket_whenAcquire_thenWaitsForRefill() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(100, 100);
+        bucket.acquire(100);
+
+        long startedAt = System.nanoTime();
+        bucket.acquire(20);
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt) >= 150);
+    }
+}
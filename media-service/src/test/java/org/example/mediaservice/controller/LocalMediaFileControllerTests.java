@@ -0,0 +1,151 @@
+package org.example.mediaservice.controller;
+
+import org.example.mediaservice.handler.ApplicationExceptionHandler;
+import org.example.mediaservice.storage.PresignedUpload;
+import org.example.mediaservice.storage.impl.LocalMediaStorage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class LocalMediaFileControllerTests {
+    private static final String KEY = "avatar.png";
+    private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.US_ASCII);
+
+    @TempDir
+    private Path root;
+
+    private LocalMediaStorage storage;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        storage = new LocalMediaStorage(root.toString(), "http://localhost:4003", "test-key", 60_000, 60_000);
+        mockMvc = MockMvcBuilders.standaloneSetup(new LocalMediaFileController(storage))
+                .setControllerAdvice(new ApplicationExceptionHandler())
+                .build();
+
+        Files.write(root.resolve(KEY), CONTENT);
+    }
+
+    @Test
+    void givenSignedUrl_whenDownload_thenReturnsWholeFile() throws Exception {
+        mockMvc.perform(signed(storage.getDownloadUrl(KEY), true))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().string(HttpHeaders.CONTENT_LENGTH, "10"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, max-age=172800"))
+                .andExpect(content().contentType("image/png"))
+                .andExpect(content().bytes(CONTENT));
+    }
+
+    @Test
+    void givenSingleRange_whenDownload_thenReturnsPartialContent() throws Exception {
+        mockMvc.perform(signed(storage.getDownloadUrl(KEY), true).header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+                .andExpect(header().string(HttpHeaders.CONTENT_LENGTH, "4"))
+                .andExpect(content().bytes("2345".getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    @Test
+    void givenSuffixRange_whenDownload_thenReturnsLastBytes() throws Exception {
+        mockMvc.perform(signed(storage.getDownloadUrl(KEY), true).header(HttpHeaders.RANGE, "bytes=-3"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 7-9/10"))
+                .andExpect(content().bytes("789".getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    @Test
+    void givenRangePastEndOfFile_whenDownload_thenReturnsRangeNotSatisfiable() throws Exception {
+        mockMvc.perform(signed(storage.getDownloadUrl(KEY), true).header(HttpHeaders.RANGE, "bytes=20-30"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"))
+                .andExpect(jsonPath("$.code").value("RANGE_NOT_SATISFIABLE"));
+    }
+
+    @Test
+    void givenMultipleRanges_whenDownload_thenReturnsWholeFile() throws Exception {
+        mockMvc.perform(signed(storage.getDownloadUrl(KEY), true).header(HttpHeaders.RANGE, "bytes=0-1,4-5"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                .andExpect(content().bytes(CONTENT));
+    }
+
+    @Test
+    void givenSendfileSupport_whenDownload_thenHandsRangeToConnectorWithoutWritingBody() throws Exception {
+        mockMvc.perform(signed(storage.getDownloadUrl(KEY), true)
+                        .header(HttpHeaders.RANGE, "bytes=2-5")
+                        .requestAttr("org.apache.tomcat.sendfile.support", Boolean.TRUE))
+                .andExpect(status().isPartialContent())
+                .andExpect(request().attribute("org.apache.tomcat.sendfile.filename", root.resolve(KEY).toString()))
+                .andExpect(request().attribute("org.apache.tomcat.sendfile.start", 2L))
+                .andExpect(request().attribute("org.apache.tomcat.sendfile.end", 6L))
+                .andExpect(header().string(HttpHeaders.CONTENT_LENGTH, "4"))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void givenTamperedSignature_whenDownload_thenForbidden() throws Exception {
+        String url = storage.getDownloadUrl(KEY).replaceAll("signature=[^&]+", "signature=forged");
+
+        mockMvc.perform(signed(url, true))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.code").value("INVALID_SIGNATURE"));
+    }
+
+    @Test
+    void givenSignedUploadUrl_whenUploadMatchingBody_thenStoresFile() throws Exception {
+        byte[] content = "new avatar".getBytes(StandardCharsets.US_ASCII);
+        PresignedUpload upload = storage.createUploadUrl("new.png", "image/png", content.length);
+
+        mockMvc.perform(signed(upload.url(), false).contentType("image/png").content(content))
+                .andExpect(status().isOk());
+
+        assertArrayEquals(content, Files.readAllBytes(root.resolve("new.png")));
+    }
+
+    @Test
+    void givenSignedUploadUrl_whenUploadOtherSize_thenForbiddenAndNothingStored() throws Exception {
+        PresignedUpload upload = storage.createUploadUrl("new.png", "image/png", 4);
+
+        mockMvc.perform(signed(upload.url(), false).contentType("image/png").content(CONTENT))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.code").value("INVALID_SIGNATURE"));
+
+        assertFalse(Files.exists(root.resolve("new.png")));
+    }
+
+    @Test
+    void givenSignedUploadUrl_whenUploadOtherContentType_thenForbiddenAndNothingStored() throws Exception {
+        PresignedUpload upload = storage.createUploadUrl("new.png", "image/png", CONTENT.length);
+
+        mockMvc.perform(signed(upload.url(), false).contentType("text/html").content(CONTENT))
+                .andExpect(status().isForbidden());
+
+        assertFalse(Files.exists(root.resolve("new.png")));
+    }
+
+    private static MockHttpServletRequestBuilder signed(String url, boolean download) {
+        var uri = UriComponentsBuilder.fromUriString(url).build();
+        MultiValueMap<String, String> params = uri.getQueryParams();
+        MockHttpServletRequestBuilder request = download ? get(uri.getPath()) : put(uri.getPath());
+        return request
+                .param("expires", params.getFirst("expires"))
+                .param("signature", params.getFirst("signature"));
+    }
+}
@@ -0,0 +1,120 @@
+package org.example.mediaservice.kafka;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.example.mediaservice.config.KafkaConsumerConfig;
+import org.example.mediaservice.kafka.routing.AvatarEventRouter;
+import org.example.mediaservice.kafka.routing.PoisonAvatarEventException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.condition.EmbeddedKafkaCondition;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@EmbeddedKafka(partitions = 1, topics = {
+        KafkaConsumerConfig.AVATAR_EVENTS_TOPIC,
+        KafkaConsumerConfig.AVATAR_EVENTS_RETRY_0,
+        KafkaConsumerConfig.AVATAR_EVENTS_RETRY_1,
+        KafkaConsumerConfig.AVATAR_EVENTS_DLT
+})
+class AvatarEventRoutingTests {
+    private DefaultKafkaProducerFactory<String, byte[]> producerFactory;
+    private Consumer<String, byte[]> consumer;
+    private AvatarEventRouter router;
+
+    @BeforeEach
+    void setUp() {
+        EmbeddedKafkaBroker broker = EmbeddedKafkaCondition.getBroker();
+
+        producerFactory = new DefaultKafkaProducerFactory<>(KafkaTestUtils.producerProps(broker),
+                new StringSerializer(), new ByteArraySerializer());
+        router = new AvatarEventRouter(new KafkaTemplate<>(producerFactory), new SimpleMeterRegistry());
+
+        Map<String, Object> consumerProps = KafkaTestUtils.consumerProps("routing-tests-" + System.nanoTime(), "false", broker);
+        consumer = new DefaultKafkaConsumerFactory<>(consumerProps, new StringDeserializer(), new ByteArrayDeserializer())
+                .createConsumer();
+        broker.consumeFromEmbeddedTopics(consumer,
+                KafkaConsumerConfig.AVATAR_EVENTS_RETRY_0,
+                KafkaConsumerConfig.AVATAR_EVENTS_DLT);
+    }
+
+    @AfterEach
+    void tearDown() {
+        consumer.close();
+        producerFactory.destroy();
+    }
+
+    @Test
+    void givenTransientS3ClientFailure_whenRoute_thenRecordGoesToRetryTopic() {
+        router.route(record("transient-avatar"), SdkClientException.create("connection reset"),
+                KafkaConsumerConfig.AVATAR_EVENTS_RETRY_0);
+
+        ConsumerRecord<String, byte[]> routed = KafkaTestUtils.getSingleRecord(consumer,
+                KafkaConsumerConfig.AVATAR_EVENTS_RETRY_0, Duration.ofSeconds(10));
+
+        assertEquals("transient-avatar", routed.key());
+        assertEquals(KafkaConsumerConfig.AVATAR_EVENTS_TOPIC, header(routed, KafkaHeaders.DLT_ORIGINAL_TOPIC));
+        assertEquals(SdkClientException.class.getName(), header(routed, KafkaHeaders.DLT_EXCEPTION_FQCN));
+    }
+
+    @Test
+    void givenS3ServerError_whenRoute_thenRecordGoesToRetryTopic() {
+        S3Exception serverError = (S3Exception) S3Exception.builder().statusCode(503).message("slow down").build();
+
+        router.route(record("throttled-avatar"), serverError, KafkaConsumerConfig.AVATAR_EVENTS_RETRY_0);
+
+        ConsumerRecord<String, byte[]> routed = KafkaTestUtils.getSingleRecord(consumer,
+                KafkaConsumerConfig.AVATAR_EVENTS_RETRY_0, Duration.ofSeconds(10));
+        assertEquals("throttled-avatar", routed.key());
+    }
+
+    @Test
+    void givenPoisonEvent_whenRoute_thenRecordGoesStraightToDlt() {
+        router.route(record("unknown-avatar"), new PoisonAvatarEventException("Unsupported avatar event action: FOO"),
+                KafkaConsumerConfig.AVATAR_EVENTS_RETRY_0);
+
+        ConsumerRecord<String, byte[]> routed = KafkaTestUtils.getSingleRecord(consumer,
+                KafkaConsumerConfig.AVATAR_EVENTS_DLT, Duration.ofSeconds(10));
+
+        assertEquals("unknown-avatar", routed.key());
+        assertEquals("Unsupported avatar event action: FOO", header(routed, KafkaHeaders.DLT_EXCEPTION_MESSAGE));
+    }
+
+    @Test
+    void givenExhaustedRetries_whenRoute_thenRecordGoesToDlt() {
+        router.route(record("exhausted-avatar"), SdkClientException.create("connection reset"),
+                KafkaConsumerConfig.AVATAR_EVENTS_DLT);
+
+        ConsumerRecord<String, byte[]> routed = KafkaTestUtils.getSingleRecord(consumer,
+                KafkaConsumerConfig.AVATAR_EVENTS_DLT, Duration.ofSeconds(10));
+        assertEquals("exhausted-avatar", routed.key());
+    }
+
+    private static ConsumerRecord<String, byte[]> record(String key) {
+        return new ConsumerRecord<>(KafkaConsumerConfig.AVATAR_EVENTS_TOPIC, 0, 0, key,
+                ("{\"action\":\"DELETED\",\"key\":\"" + key + "\"}").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String header(ConsumerRecord<String, byte[]> record, String name) {
+        return new String(record.headers().lastHeader(name).value(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,203 @@
+package org.example.mediaservice.kafka;
+
+import avatar.event.AvatarEventEnvelope;
+import avatar.event.AvatarEventMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.example.mediaservice.config.KafkaConsumerConfig;
+import org.example.mediaservice.event.AvatarEvent;
+import org.example.mediaservice.kafka.codec.AvatarEventCodec;
+import org.example.mediaservice.kafka.dedupe.ProcessedEventStore;
+import org.example.mediaservice.kafka.routing.AvatarEventRouter;
+import org.example.mediaservice.kafka.routing.PoisonAvatarEventException;
+import org.example.mediaservice.kafka.strategy.AvatarEventHandler;
+import org.example.mediaservice.kafka.strategy.AvatarEventHandlerFactory;
+import org.example.mediaservice.model.Status;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserProfileConsumerTests {
+    private final AvatarEventCodec codec = new AvatarEventCodec(new ObjectMapper());
+
+    private AvatarEventHandler deleteHandler;
+    private AvatarEventHandler approveHandler;
+    private AvatarEventRouter router;
+    private ProcessedEventStore processedEventStore;
+    private Acknowledgment acknowledgment;
+    private SimpleMeterRegistry meterRegistry;
+    private ExecutorService executor;
+    private UserProfileConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        deleteHandler = mock(AvatarEventHandler.class);
+        approveHandler = mock(AvatarEventHandler.class);
+        AvatarEventHandlerFactory factory = mock(AvatarEventHandlerFactory.class);
+        when(factory.getHandler(Status.DELETED)).thenReturn(deleteHandler);
+        when(factory.getHandler(Status.APPROVED)).thenReturn(approveHandler);
+
+        router = mock(AvatarEventRouter.class);
+        processedEventStore = mock(ProcessedEventStore.class);
+        acknowledgment = mock(Acknowledgment.class);
+        meterRegistry = new SimpleMeterRegistry();
+        executor = Executors.newFixedThreadPool(4);
+        consumer = new UserProfileConsumer(factory, router, processedEventStore, codec, executor, meterRegistry, 5000, 60000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    // region: main topic
+    @Test
+    void givenBatchOfEvents_whenConsume_thenDispatchesAllAndAcknowledges() {
+        consumer.consumeAvatarEvents(List.of(
+                record(Status.APPROVED, "new-avatar"),
+                record(Status.DELETED, "old-avatar")
+        ), acknowledgment);
+
+        verify(approveHandler).handle(event(Status.APPROVED, "new-avatar"));
+        verify(deleteHandler).handle(event(Status.DELETED, "old-avatar"));
+        verify(acknowledgment).acknowledge();
+        verifyNoInteractions(router);
+        assertEquals(1.0, meterRegistry.get("media.avatar.events.processed").tag("action", "DELETED").counter().count());
+    }
+
+    @Test
+    void givenEventsForSameKey_whenConsume_thenKeepsTheirOrder() {
+        consumer.consumeAvatarEvents(List.of(
+                record(Status.APPROVED, "avatar"),
+                record(Status.DELETED, "avatar")
+        ), acknowledgment);
+
+        InOrder inOrder = inOrder(approveHandler, deleteHandler);
+        inOrder.verify(approveHandler).handle(event(Status.APPROVED, "avatar"));
+        inOrder.verify(deleteHandler).handle(event(Status.DELETED, "avatar"));
+    }
+
+    @Test
+    void givenHandlerFailure_whenConsume_thenRoutesRecordToFirstRetryAndAcknowledges() {
+        IllegalStateException failure = new IllegalStateException("s3 unavailable");
+        doThrow(failure).when(deleteHandler).handle(any());
+        ConsumerRecord<String, byte[]> failing = record(Status.DELETED, "old-avatar");
+
+        consumer.consumeAvatarEvents(List.of(failing, record(Status.APPROVED, "new-avatar")), acknowledgment);
+
+        verify(router).route(failing, failure, KafkaConsumerConfig.AVATAR_EVENTS_RETRY_0);
+        verify(approveHandler).handle(event(Status.APPROVED, "new-avatar"));
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void givenUnknownAction_whenConsume_thenRoutesPoisonFailure() {
+        byte[] payload = AvatarEventEnvelope.newBuilder()
+                .setSchemaVersion(AvatarEventCodec.SCHEMA_VERSION)
+                .setEvent(AvatarEventMessage.newBuilder().setEventId("unknown").setKey("avatar"))
+                .build()
+                .toByteArray();
+        ConsumerRecord<String, byte[]> unknown = record("avatar", payload, System.currentTimeMillis());
+
+        consumer.consumeAvatarEvents(List.of(unknown), acknowledgment);
+
+        verify(router).route(eq(unknown), any(PoisonAvatarEventException.class), eq(KafkaConsumerConfig.AVATAR_EVENTS_RETRY_0));
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void givenAlreadyProcessedEvent_whenConsume_thenSkipsHandler() {
+        when(processedEventStore.isProcessed("DELETED:old-avatar")).thenReturn(true);
+
+        consumer.consumeAvatarEvents(List.of(
+                record(Status.DELETED, "old-avatar"),
+                record(Status.APPROVED, "new-avatar")
+        ), acknowledgment);
+
+        verifyNoInteractions(deleteHandler);
+        verify(approveHandler).handle(event(Status.APPROVED, "new-avatar"));
+        verify(processedEventStore).markProcessed("APPROVED:new-avatar");
+        verify(processedEventStore, never()).markProcessed("DELETED:old-avatar");
+        assertEquals(1.0, meterRegistry.get("media.avatar.events.duplicates").counter().count());
+    }
+
+    @Test
+    void givenHandlerFailure_whenConsume_thenDoesNotMarkEventProcessed() {
+        doThrow(new IllegalStateException("s3 unavailable")).when(deleteHandler).handle(any());
+
+        consumer.consumeAvatarEvents(List.of(record(Status.DELETED, "old-avatar")), acknowledgment);
+
+        verify(processedEventStore, never()).markProcessed(any());
+    }
+
+    @Test
+    void givenRoutingFailure_whenConsume_thenDoesNotAcknowledge() {
+        doThrow(new IllegalStateException("s3 unavailable")).when(deleteHandler).handle(any());
+        doThrow(new IllegalStateException("broker unavailable")).when(router).route(any(), any(), any());
+
+        assertThrows(CompletionException.class,
+                () -> consumer.consumeAvatarEvents(List.of(record(Status.DELETED, "old-avatar")), acknowledgment));
+
+        verify(acknowledgment, never()).acknowledge();
+    }
+    // endregion
+
+    // region: retry topics
+    @Test
+    void givenRecordNotDueYet_whenRetry_thenNacksWithoutProcessing() {
+        ConsumerRecord<String, byte[]> due = record(Status.DELETED, "due", System.currentTimeMillis() - 10_000);
+        ConsumerRecord<String, byte[]> notDue = record(Status.DELETED, "not-due", System.currentTimeMillis());
+
+        consumer.retry(List.of(due, notDue), acknowledgment, 5000, KafkaConsumerConfig.AVATAR_EVENTS_RETRY_1);
+
+        verify(deleteHandler).handle(event(Status.DELETED, "due"));
+        verify(deleteHandler, never()).handle(event(Status.DELETED, "not-due"));
+        verify(acknowledgment).nack(eq(1), any(Duration.class));
+        verify(acknowledgment, never()).acknowledge();
+    }
+
+    @Test
+    void givenFailureOnLastRetry_whenRetry_thenRoutesToDlt() {
+        IllegalStateException failure = new IllegalStateException("still failing");
+        doThrow(failure).when(deleteHandler).handle(any());
+        ConsumerRecord<String, byte[]> record = record(Status.DELETED, "avatar", 0);
+
+        consumer.consumeSecondRetry(List.of(record), acknowledgment);
+
+        verify(router).route(record, failure, KafkaConsumerConfig.AVATAR_EVENTS_DLT);
+        verify(acknowledgment).acknowledge();
+    }
+    // endregion
+
+    private static AvatarEvent event(Status action, String key) {
+        return new AvatarEvent(action + ":" + key, 1, action, key);
+    }
+
+    private ConsumerRecord<String, byte[]> record(Status action, String key) {
+        return record(action, key, System.currentTimeMillis());
+    }
+
+    private ConsumerRecord<String, byte[]> record(Status action, String key, long timestamp) {
+        return record(key, codec.encode(event(action, key)), timestamp);
+    }
+
+    private static ConsumerRecord<String, byte[]> record(String key, byte[] payload, long timestamp) {
+        return new ConsumerRecord<>(KafkaConsumerConfig.AVATAR_EVENTS_TOPIC, 0, 0, timestamp,
+                TimestampType.CREATE_TIME, 0, 0, key, payload, new RecordHeaders(), Optional.empty());
+    }
+}
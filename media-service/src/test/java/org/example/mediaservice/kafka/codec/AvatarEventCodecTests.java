@@ -0,0 +1,67 @@
+package org.example.mediaservice.kafka.codec;
+
+import avatar.event.AvatarEventEnvelope;
+import avatar.event.AvatarEventMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.mediaservice.event.AvatarEvent;
+import org.example.mediaservice.kafka.routing.PoisonAvatarEventException;
+import org.example.mediaservice.model.Status;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AvatarEventCodecTests {
+    private final AvatarEventCodec codec = new AvatarEventCodec(new ObjectMapper());
+
+    @Test
+    void givenEvent_whenEncodeAndDecode_thenRoundTrips() {
+        AvatarEvent event = new AvatarEvent("event-1", 42L, Status.DELETED, "avatar-key");
+
+        assertEquals(event, codec.decode(codec.encode(event)));
+    }
+
+    @Test
+    void givenLegacyJsonPayload_whenDecode_thenFallsBackToJson() {
+        byte[] payload = "{\"eventId\":\"event-1\",\"version\":42,\"action\":\"APPROVED\",\"key\":\"avatar-key\"}"
+                .getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(new AvatarEvent("event-1", 42L, Status.APPROVED, "avatar-key"), codec.decode(payload));
+    }
+
+    @Test
+    void givenJsonWithUnknownAction_whenDecode_thenThrowsPoison() {
+        byte[] payload = "{\"action\":\"UNKNOWN\",\"key\":\"avatar-key\"}".getBytes(StandardCharsets.UTF_8);
+
+        assertThrows(PoisonAvatarEventException.class, () -> codec.decode(payload));
+    }
+
+    @Test
+    void givenUnspecifiedAction_whenDecode_thenThrowsPoison() {
+        byte[] payload = AvatarEventEnvelope.newBuilder()
+                .setSchemaVersion(AvatarEventCodec.SCHEMA_VERSION)
+                .setEvent(AvatarEventMessage.newBuilder().setKey("avatar-key"))
+                .build()
+                .toByteArray();
+
+        assertThrows(PoisonAvatarEventException.class, () -> codec.decode(payload));
+    }
+
+    @Test
+    void givenNewerSchemaVersion_whenDecode_thenThrowsPoison() {
+        byte[] payload = AvatarEventEnvelope.newBuilder()
+                .setSchemaVersion(AvatarEventCodec.SCHEMA_VERSION + 1)
+                .setEvent(AvatarEventMessage.newBuilder().setKey("avatar-key"))
+                .build()
+                .toByteArray();
+
+        assertThrows(PoisonAvatarEventException.class, () -> codec.decode(payload));
+    }
+
+    @Test
+    void givenGarbagePayload_whenDecode_thenThrowsPoison() {
+        assertThrows(PoisonAvatarEventException.class, () -> codec.decode(new byte[]{(byte) 0xFF, 0x01}));
+        assertThrows(PoisonAvatarEventException.class, () -> codec.decode(new byte[0]));
+    }
+}
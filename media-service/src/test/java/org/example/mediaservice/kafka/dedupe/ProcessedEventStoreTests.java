@@ -0,0 +1,62 @@
+package org.example.mediaservice.kafka.dedupe;
+
+import org.example.mediaservice.model.ProcessedEvent;
+import org.example.mediaservice.repository.ProcessedEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProcessedEventStoreTests {
+    private ProcessedEventRepository repository;
+    private ProcessedEventStore store;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ProcessedEventRepository.class);
+        store = new ProcessedEventStore(repository, mock(MongoTemplate.class), 2, 60_000);
+    }
+
+    @Test
+    void givenRecentlyProcessedEvent_whenIsProcessed_thenAnswersFromMemory() {
+        store.markProcessed("event-1");
+
+        assertTrue(store.isProcessed("event-1"));
+        verify(repository, never()).existsById(any());
+    }
+
+    @Test
+    void givenEventEvictedFromMemory_whenIsProcessed_thenFallsBackToMongo() {
+        store.markProcessed("event-1");
+        store.markProcessed("event-2");
+        store.markProcessed("event-3");
+        when(repository.existsById("event-1")).thenReturn(true);
+
+        assertTrue(store.isProcessed("event-1"));
+        verify(repository).existsById("event-1");
+    }
+
+    @Test
+    void givenUnknownEvent_whenIsProcessed_thenReturnsFalse() {
+        assertFalse(store.isProcessed("event-1"));
+    }
+
+    @Test
+    void givenEventWithoutId_whenIsProcessed_thenNeverTreatedAsDuplicate() {
+        store.markProcessed(null);
+
+        assertFalse(store.isProcessed(null));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void givenConcurrentlyMarkedEvent_whenMarkProcessed_thenIgnoresDuplicateKey() {
+        when(repository.insert(any(ProcessedEvent.class))).thenThrow(new DuplicateKeyException("duplicate"));
+
+        assertDoesNotThrow(() -> store.markProcessed("event-1"));
+        assertTrue(store.isProcessed("event-1"));
+    }
+}
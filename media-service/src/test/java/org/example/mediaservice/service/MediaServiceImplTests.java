@@ -2,41 +2,46 @@ package org.example.mediaservice.service;
 
 import org.example.mediaservice.dto.error.ErrorCode;
 import org.example.mediaservice.dto.media.MediaResponse;
+import org.example.mediaservice.dto.media.UploadUrlRequest;
+import org.example.mediaservice.dto.media.UploadUrlResponse;
 import org.example.mediaservice.exception.BusinessException;
 import org.example.mediaservice.model.Media;
 import org.example.mediaservice.model.Status;
 import org.example.mediaservice.repository.MediaRepository;
 import org.example.mediaservice.service.impl.MediaServiceImpl;
+import org.example.mediaservice.storage.MediaStorage;
+import org.example.mediaservice.storage.PresignedUpload;
+import org.example.mediaservice.storage.StoredObject;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.util.ReflectionTestUtils;
-import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
-import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 class MediaServiceImplTests {
-    private S3Client s3Client;
+    private MediaStorage mediaStorage;
     private MediaRepository mediaRepository;
-    private S3PresignedService s3PresignedService;
     private MediaServiceImpl service;
 
     @BeforeEach
     void setUp() {
-        s3Client = mock(S3Client.class);
+        mediaStorage = mock(MediaStorage.class);
         mediaRepository = mock(MediaRepository.class);
-        s3PresignedService = mock(S3PresignedService.class);
-        service = new MediaServiceImpl(s3Client, mediaRepository, s3PresignedService);
+        service = new MediaServiceImpl(mediaStorage, mediaRepository);
 
-        ReflectionTestUtils.setField(service, "bucketName", "test-bucket");
+        ReflectionTestUtils.setField(service, "maxDirectUploadSize", 1024L);
     }
 
     @Test
@@ -46,17 +51,14 @@ class MediaServiceImplTests {
         );
 
         String presignedUrl = "http://example.com/test.txt";
-        when(s3PresignedService.generatePresignedUrl(anyString())).thenReturn(presignedUrl);
+        when(mediaStorage.getDownloadUrl(anyString())).thenReturn(presignedUrl);
 
-        doAnswer(invocation -> {
-            Media savedMedia = invocation.getArgument(0, Media.class);
-            when(mediaRepository.findByKey(savedMedia.getKey())).thenReturn(Optional.of(savedMedia));
-            return savedMedia;
-        }).when(mediaRepository).save(any(Media.class));
+        when(mediaStorage.upload(anyString(), anyString(), anyLong(), any(InputStream.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
 
-        MediaResponse response = service.uploadMedia(file);
+        MediaResponse response = service.uploadMedia(file).join();
 
-        verify(s3Client).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        verify(mediaStorage).upload(anyString(), eq("text/plain"), eq(5L), any(InputStream.class));
         verify(mediaRepository).save(any(Media.class));
 
         assertNotNull(response);
@@ -64,16 +66,18 @@ class MediaServiceImplTests {
     }
 
     @Test
-    void givenExistingMediaKey_whenDeleteMediaByKey_thenDeletesFromS3AndRepository() {
+    void givenExistingMediaKey_whenDeleteMediaByKey_thenDeletesFromStorageAndRepository() {
         String key = "mediaKey";
         Media media = new Media();
         media.setKey(key);
         when(mediaRepository.findByKey(key)).thenReturn(Optional.of(media));
+        when(mediaStorage.delete(key)).thenReturn(CompletableFuture.completedFuture(null));
 
-        service.deleteMediaByKey(key);
+        service.deleteMediaByKey(key).join();
 
-        verify(s3Client).deleteObject(any(DeleteObjectRequest.class));
+        verify(mediaStorage).delete(key);
         verify(mediaRepository).delete(media);
+        verify(mediaStorage).evictDownloadUrl(key);
     }
 
     @Test
@@ -88,46 +92,264 @@ class MediaServiceImplTests {
 
     @Test
     void givenMediaKey_whenGetMediaWithPresignedUrl_thenReturnsResponse() {
+        String key = "mediaKey";
+        when(mediaRepository.existsByKeyAndStatusNot(key, Status.DELETED)).thenReturn(true);
+        when(mediaStorage.getDownloadUrl(key)).thenReturn("http://example.com/mediaKey");
+
+        MediaResponse response = service.getMediaWithPresignedUrl(key);
+
+        assertEquals(key, response.key());
+        assertEquals("http://example.com/mediaKey", response.presignedUrl());
+    }
+
+    @Test
+    void givenCachedUrl_whenGetMediaWithPresignedUrl_thenReturnsItWithoutQueryingMongo() {
+        String key = "mediaKey";
+        when(mediaStorage.findCachedDownloadUrl(key)).thenReturn(Optional.of("http://example.com/mediaKey"));
+
+        MediaResponse response = service.getMediaWithPresignedUrl(key);
+
+        assertEquals("http://example.com/mediaKey", response.presignedUrl());
+        verifyNoInteractions(mediaRepository);
+        verify(mediaStorage, never()).getDownloadUrl(anyString());
+    }
+
+    @Test
+    void givenUploadRequest_whenCreateUploadUrl_thenSavesAwaitingMediaAndReturnsPresignedPut() {
+        PresignedUpload presigned = new PresignedUpload(
+                "https://bucket.s3.amazonaws.com/avatar.png",
+                Map.of("content-type", "image/png", "content-length", "512"),
+                Instant.parse("2030-01-01T00:00:00Z"));
+        when(mediaStorage.createUploadUrl(anyString(), eq("image/png"), eq(512L))).thenReturn(presigned);
+
+        UploadUrlResponse response = service.createUploadUrl(new UploadUrlRequest("avatar.png", "image/png", 512));
+
+        ArgumentCaptor<Media> saved = ArgumentCaptor.forClass(Media.class);
+        verify(mediaRepository).save(saved.capture());
+        assertEquals(Status.AWAITING_UPLOAD, saved.getValue().getStatus());
+        assertEquals(saved.getValue().getKey(), response.key());
+        assertTrue(response.key().endsWith("-avatar.png"));
+        assertEquals("https://bucket.s3.amazonaws.com/avatar.png", response.uploadUrl());
+        assertEquals(Map.of("content-type", "image/png", "content-length", "512"), response.headers());
+        verify(mediaStorage, never()).upload(anyString(), anyString(), anyLong(), any(InputStream.class));
+    }
+
+    @Test
+    void givenTooLargeFile_whenCreateUploadUrl_thenThrowsFileTooLarge() {
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> service.createUploadUrl(new UploadUrlRequest("avatar.png", "image/png", 2048)));
+
+        assertEquals(ErrorCode.FILE_TOO_LARGE, ex.getErrorCode());
+        verifyNoInteractions(mediaRepository);
+    }
+
+    @Test
+    void givenFilenameWithPathSeparator_whenCreateUploadUrl_thenThrowsInvalidUploadRequest() {
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> service.createUploadUrl(new UploadUrlRequest("photos/avatar.png", "image/png", 512)));
+
+        assertEquals(ErrorCode.INVALID_UPLOAD_REQUEST, ex.getErrorCode());
+        verifyNoInteractions(mediaRepository, mediaStorage);
+    }
+
+    @Test
+    void givenFilenameWithPathSeparator_whenUploadMedia_thenThrowsInvalidUploadRequest() {
+        MockMultipartFile file = new MockMultipartFile(
+                "file", "C:\\photos\\avatar.png", "image/png", "avatar".getBytes()
+        );
+
+        BusinessException ex = assertThrows(BusinessException.class, () -> service.uploadMedia(file));
+
+        assertEquals(ErrorCode.INVALID_UPLOAD_REQUEST, ex.getErrorCode());
+        verifyNoInteractions(mediaRepository, mediaStorage);
+    }
+
+    @Test
+    void givenUploadedObject_whenConfirmUpload_thenMarksMediaPending() {
+        Media media = awaitingMedia("mediaKey");
+        when(mediaRepository.findByKey("mediaKey")).thenReturn(Optional.of(media));
+        when(mediaStorage.find("mediaKey")).thenReturn(Optional.of(new StoredObject(512L, "image/png")));
+        when(mediaStorage.getDownloadUrl("mediaKey")).thenReturn("http://example.com/mediaKey");
+
+        when(mediaRepository.updateStatus("mediaKey", Status.AWAITING_UPLOAD, Status.PENDING)).thenReturn(1L);
+
+        MediaResponse response = service.confirmUpload("mediaKey");
+
+        assertEquals("http://example.com/mediaKey", response.presignedUrl());
+        verify(mediaRepository).updateStatus("mediaKey", Status.AWAITING_UPLOAD, Status.PENDING);
+        verify(mediaRepository, never()).save(any());
+    }
+
+    @Test
+    void givenMissingObject_whenConfirmUpload_thenThrowsUploadNotCompleted() {
+        when(mediaRepository.findByKey("mediaKey")).thenReturn(Optional.of(awaitingMedia("mediaKey")));
+        when(mediaStorage.find("mediaKey")).thenReturn(Optional.empty());
+
+        BusinessException ex = assertThrows(BusinessException.class, () -> service.confirmUpload("mediaKey"));
+
+        assertEquals(ErrorCode.UPLOAD_NOT_COMPLETED, ex.getErrorCode());
+        verify(mediaRepository, never()).updateStatus(anyString(), any(Status.class), any(Status.class));
+    }
+
+    @Test
+    void givenObjectOfDifferentSize_whenConfirmUpload_thenRemovesMediaAndThrowsMismatch() {
+        Media media = awaitingMedia("mediaKey");
+        when(mediaRepository.findByKey("mediaKey")).thenReturn(Optional.of(media));
+        when(mediaStorage.find("mediaKey")).thenReturn(Optional.of(new StoredObject(4096L, "image/png")));
+        when(mediaStorage.delete("mediaKey")).thenReturn(CompletableFuture.completedFuture(null));
+
+        BusinessException ex = assertThrows(BusinessException.class, () -> service.confirmUpload("mediaKey"));
+
+        assertEquals(ErrorCode.UPLOAD_MISMATCH, ex.getErrorCode());
+        verify(mediaStorage).delete("mediaKey");
+        verify(mediaRepository).delete(media);
+    }
+
+    @Test
+    void givenMissingOrDeletedMedia_whenGetMediaWithPresignedUrl_thenThrowsNotFound() {
+        when(mediaRepository.existsByKeyAndStatusNot("mediaKey", Status.DELETED)).thenReturn(false);
+
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> service.getMediaWithPresignedUrl("mediaKey"));
+
+        assertEquals(ErrorCode.RESOURCE_NOT_FOUND, ex.getErrorCode());
+        verify(mediaStorage, never()).getDownloadUrl(anyString());
+    }
+
+    @Test
+    void givenActionAndKey_whenUpdateMediaStatus_thenUpdatesStatusAtomically() {
+        String key = "mediaKey";
+        when(mediaRepository.updateStatus(key, List.of(Status.PENDING, Status.APPROVED), Status.APPROVED, 2)).thenReturn(1L);
+
+        service.updateMediaStatus(Status.APPROVED, key, 2);
+
+        verify(mediaRepository).updateStatus(key, List.of(Status.PENDING, Status.APPROVED), Status.APPROVED, 2);
+        verify(mediaRepository, never()).findByKey(anyString());
+        verify(mediaRepository, never()).save(any());
+        verify(mediaStorage).evictDownloadUrl(key);
+    }
+
+    @Test
+    void givenOlderEventVersionOrOtherStatus_whenUpdateMediaStatus_thenIgnoresEvent() {
+        String key = "mediaKey";
+        when(mediaRepository.updateStatus(eq(key), anyCollection(), eq(Status.APPROVED), eq(4L))).thenReturn(0L);
+
+        service.updateMediaStatus(Status.APPROVED, key, 4);
+
+        verify(mediaRepository, never()).save(any());
+        verify(mediaStorage, never()).evictDownloadUrl(anyString());
+    }
+
+    @Test
+    void givenStatusWithoutTransitions_whenUpdateMediaStatus_thenMatchesNoStatus() {
+        service.updateMediaStatus(Status.AWAITING_UPLOAD, "mediaKey", 1);
+
+        verify(mediaRepository).updateStatus("mediaKey", List.of(), Status.AWAITING_UPLOAD, 1);
+    }
+
+    @Test
+    void givenOlderEventVersion_whenDeleteMediaByKey_thenKeepsMedia() {
         String key = "mediaKey";
         Media media = new Media();
         media.setKey(key);
+        media.setEventVersion(5L);
         when(mediaRepository.findByKey(key)).thenReturn(Optional.of(media));
-        when(s3PresignedService.generatePresignedUrl(key)).thenReturn("http://example.com/mediaKey");
 
-        MediaResponse response = service.getMediaWithPresignedUrl(key);
+        service.deleteMediaByKey(key, 4);
 
-        assertEquals(key, response.key());
+        verify(mediaStorage, never()).delete(anyString());
+        verify(mediaRepository, never()).delete(any());
     }
 
     @Test
-    void givenActionAndKey_whenUpdateMediaStatus_thenStatusUpdated() {
+    void givenStorageFailure_whenDeleteMediaByKeyWithVersion_thenRethrowsCauseAndKeepsRecord() {
         String key = "mediaKey";
         Media media = new Media();
         media.setKey(key);
         when(mediaRepository.findByKey(key)).thenReturn(Optional.of(media));
+        when(mediaStorage.delete(key)).thenReturn(CompletableFuture.failedFuture(
+                S3Exception.builder().statusCode(503).message("slow down").build()));
 
-        service.updateMediaStatus("APPROVED", key);
+        assertThrows(S3Exception.class, () -> service.deleteMediaByKey(key, 4));
 
-        assertEquals(Status.APPROVED, media.getStatus());
-        verify(mediaRepository).save(media);
+        verify(mediaRepository, never()).delete(any());
+        verify(mediaStorage, never()).evictDownloadUrl(anyString());
     }
 
     @Test
-    void givenStatus_whenDeleteMedia_thenDeletesMatchingMedia() {
-        Media media1 = new Media();
-        media1.setKey("key1");
-        media1.setStatus(Status.PENDING);
+    void givenBatch_whenDeleteMedia_thenClaimsAndDeletesObjectsAndRecords() {
+        Media media1 = pendingMedia("id1", "key1", 1);
+        Media media2 = pendingMedia("id2", "key2", 2);
+        when(mediaRepository.findAllByIdInAndStatus(List.of("id1", "id2"), Status.DELETED)).thenReturn(List.of(media1, media2));
+        when(mediaStorage.delete(anyList()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(invocation.getArgument(0)));
+
+        int deleted = service.deleteMedia(List.of(media1, media2), Status.PENDING);
+
+        assertEquals(2, deleted);
+        verify(mediaRepository).updateStatus(List.of("id1", "id2"), Status.PENDING, Status.DELETED);
+        verify(mediaStorage).delete(List.of("key1", "key2"));
+        verify(mediaStorage).evictDownloadUrl("key1");
+        verify(mediaStorage).evictDownloadUrl("key2");
+        verify(mediaRepository).deleteAllById(List.of("id1", "id2"));
+    }
 
-        Media media2 = new Media();
-        media2.setKey("key2");
-        media2.setStatus(Status.PENDING);
+    @Test
+    void givenMediaApprovedAfterRead_whenDeleteMedia_thenLeavesItAlone() {
+        Media media1 = pendingMedia("id1", "key1", 1);
+        Media media2 = pendingMedia("id2", "key2", 2);
+        when(mediaRepository.findAllByIdInAndStatus(List.of("id1", "id2"), Status.DELETED)).thenReturn(List.of(media1));
+        when(mediaStorage.delete(anyList()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(invocation.getArgument(0)));
 
-        when(mediaRepository.findAll()).thenReturn(List.of(media1, media2));
+        int deleted = service.deleteMedia(List.of(media1, media2), Status.PENDING);
 
-        service.deleteMedia(Status.PENDING);
+        assertEquals(1, deleted);
+        verify(mediaStorage).delete(List.of("key1"));
+        verify(mediaStorage, never()).evictDownloadUrl("key2");
+        verify(mediaRepository).deleteAllById(List.of("id1"));
+    }
 
-        verify(s3Client, times(2)).deleteObject(any(DeleteObjectRequest.class));
+    @Test
+    void givenNothingClaimed_whenDeleteMedia_thenDoesNotTouchStorage() {
+        Media media = pendingMedia("id1", "key1", 1);
+        when(mediaRepository.findAllByIdInAndStatus(List.of("id1"), Status.DELETED)).thenReturn(List.of());
+
+        int deleted = service.deleteMedia(List.of(media), Status.PENDING);
+
+        assertEquals(0, deleted);
+        verifyNoInteractions(mediaStorage);
+        verify(mediaRepository, never()).deleteAllById(anyList());
+    }
+
+    @Test
+    void givenStorageFailureForSomeKeys_whenDeleteMedia_thenKeepsTheirRecords() {
+        Media media1 = pendingMedia("id1", "key1", 1);
+        Media media2 = pendingMedia("id2", "key2", 2);
+        when(mediaRepository.findAllByIdInAndStatus(List.of("id1", "id2"), Status.DELETED)).thenReturn(List.of(media1, media2));
+        when(mediaStorage.delete(anyList())).thenReturn(CompletableFuture.completedFuture(List.of("key2")));
+
+        int deleted = service.deleteMedia(List.of(media1, media2), Status.PENDING);
+
+        assertEquals(1, deleted);
+        verify(mediaRepository).deleteAllById(List.of("id2"));
+    }
+
+    private static Media awaitingMedia(String key) {
+        return Media.builder()
+                .key(key)
+                .contentType("image/png")
+                .size(512)
+                .status(Status.AWAITING_UPLOAD)
+                .build();
+    }
 
-        verify(mediaRepository).deleteAll(List.of(media1, media2));
+    private static Media pendingMedia(String id, String key, long uploadedAtSeconds) {
+        return Media.builder()
+                .id(id)
+                .key(key)
+                .status(Status.PENDING)
+                .uploadedAt(Instant.ofEpochSecond(uploadedAtSeconds))
+                .build();
     }
 }
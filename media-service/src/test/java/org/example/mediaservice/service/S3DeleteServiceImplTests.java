@@ -0,0 +1,78 @@
+package org.example.mediaservice.service;
+
+import org.example.mediaservice.service.impl.S3DeleteServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectResponse;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.S3Error;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class S3DeleteServiceImplTests {
+    private S3AsyncClient s3AsyncClient;
+    private ExecutorService executor;
+    private S3DeleteServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        s3AsyncClient = mock(S3AsyncClient.class);
+        executor = Executors.newSingleThreadExecutor();
+        service = new S3DeleteServiceImpl(s3AsyncClient, executor, "test-bucket");
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void givenMoreThanThousandKeys_whenDeleteObjects_thenSplitsIntoDeleteObjectsRequests() {
+        List<String> keys = IntStream.range(0, 1500).mapToObj(i -> "key-" + i).toList();
+        when(s3AsyncClient.deleteObjects(any(DeleteObjectsRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(DeleteObjectsResponse.builder().build()));
+
+        List<String> deleted = service.deleteObjects(keys).join();
+
+        ArgumentCaptor<DeleteObjectsRequest> requests = ArgumentCaptor.forClass(DeleteObjectsRequest.class);
+        verify(s3AsyncClient, times(2)).deleteObjects(requests.capture());
+        assertEquals(1000, requests.getAllValues().get(0).delete().objects().size());
+        assertEquals(500, requests.getAllValues().get(1).delete().objects().size());
+        assertTrue(requests.getValue().delete().quiet());
+        assertEquals(keys, deleted);
+    }
+
+    @Test
+    void givenPartialFailure_whenDeleteObjects_thenReturnsOnlyDeletedKeys() {
+        when(s3AsyncClient.deleteObjects(any(DeleteObjectsRequest.class))).thenReturn(CompletableFuture.completedFuture(
+                DeleteObjectsResponse.builder()
+                        .errors(S3Error.builder().key("key-1").code("AccessDenied").message("Access Denied").build())
+                        .build()));
+
+        List<String> deleted = service.deleteObjects(List.of("key-1", "key-2")).join();
+
+        assertEquals(List.of("key-2"), deleted);
+    }
+
+    @Test
+    void givenKey_whenDeleteObject_thenDeletesFromBucket() {
+        when(s3AsyncClient.deleteObject(any(DeleteObjectRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(DeleteObjectResponse.builder().build()));
+
+        service.deleteObject("key-1").join();
+
+        verify(s3AsyncClient).deleteObject(DeleteObjectRequest.builder().bucket("test-bucket").key("key-1").build());
+    }
+}
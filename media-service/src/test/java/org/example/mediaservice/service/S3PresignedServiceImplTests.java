@@ -1,11 +1,14 @@
 package org.example.mediaservice.service;
 
 import org.example.mediaservice.service.impl.S3PresignedServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
 import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
 
 import java.lang.reflect.Field;
 import java.net.MalformedURLException;
@@ -16,16 +19,22 @@ import static org.mockito.Mockito.*;
 
 class S3PresignedServiceImplTests {
     private S3Presigner presigner;
+    private SimpleMeterRegistry meterRegistry;
     private S3PresignedServiceImpl service;
 
     @BeforeEach
     void setUp() throws IllegalAccessException, NoSuchFieldException {
         presigner = mock(S3Presigner.class);
-        service = new S3PresignedServiceImpl(presigner);
+        meterRegistry = new SimpleMeterRegistry();
+        service = new S3PresignedServiceImpl(presigner, meterRegistry, 60_000, 120_000, 100);
 
         Field bucketField = S3PresignedServiceImpl.class.getDeclaredField("bucketName");
         bucketField.setAccessible(true);
         bucketField.set(service, "test-bucket");
+
+        Field ttlField = S3PresignedServiceImpl.class.getDeclaredField("presignedPutTtl");
+        ttlField.setAccessible(true);
+        ttlField.set(service, 600_000L);
     }
 
     @Test
@@ -46,7 +55,67 @@ class S3PresignedServiceImplTests {
         verify(presigner).presignGetObject(argThat((GetObjectPresignRequest req) ->
                 req.getObjectRequest().bucket().equals("test-bucket") &&
                 req.getObjectRequest().key().equals(key) &&
-                req.signatureDuration().toHours() == 48
+                req.signatureDuration().toHours() == 48 &&
+                req.getObjectRequest().responseCacheControl().startsWith("public, max-age=")
+        ));
+    }
+
+    @Test
+    void givenGeneratedUrl_whenGeneratePresignedUrlAgain_thenReturnsItWithoutPresigningAgain() throws MalformedURLException {
+        PresignedGetObjectRequest presignedRequest = mock(PresignedGetObjectRequest.class);
+        when(presignedRequest.url()).thenReturn(URI.create("https://example.com/avatar.png").toURL());
+        when(presigner.presignGetObject(any(GetObjectPresignRequest.class))).thenReturn(presignedRequest);
+
+        String generated = service.generatePresignedUrl("avatar.png");
+
+        assertEquals(generated, service.generatePresignedUrl("avatar.png"));
+        verify(presigner, times(1)).presignGetObject(any(GetObjectPresignRequest.class));
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "presignedUrls").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void givenEvictedUrl_whenGeneratePresignedUrl_thenPresignsAgain() throws MalformedURLException {
+        PresignedGetObjectRequest presignedRequest = mock(PresignedGetObjectRequest.class);
+        when(presignedRequest.url()).thenReturn(URI.create("https://example.com/avatar.png").toURL());
+        when(presigner.presignGetObject(any(GetObjectPresignRequest.class))).thenReturn(presignedRequest);
+        service.generatePresignedUrl("avatar.png");
+
+        service.evictPresignedUrl("avatar.png");
+        service.generatePresignedUrl("avatar.png");
+
+        verify(presigner, times(2)).presignGetObject(any(GetObjectPresignRequest.class));
+    }
+
+    @Test
+    void givenGeneratedThenEvictedUrl_whenFindCachedPresignedUrl_thenOnlyFoundBeforeEviction() throws MalformedURLException {
+        PresignedGetObjectRequest presignedRequest = mock(PresignedGetObjectRequest.class);
+        when(presignedRequest.url()).thenReturn(URI.create("https://example.com/avatar.png").toURL());
+        when(presigner.presignGetObject(any(GetObjectPresignRequest.class))).thenReturn(presignedRequest);
+
+        assertTrue(service.findCachedPresignedUrl("avatar.png").isEmpty());
+        service.generatePresignedUrl("avatar.png");
+        assertEquals("https://example.com/avatar.png", service.findCachedPresignedUrl("avatar.png").orElseThrow());
+
+        service.evictPresignedUrl("avatar.png");
+
+        assertTrue(service.findCachedPresignedUrl("avatar.png").isEmpty());
+        verify(presigner, times(1)).presignGetObject(any(GetObjectPresignRequest.class));
+    }
+
+    @Test
+    void givenKeyAndContent_whenGeneratePresignedUpload_thenSignsContentTypeAndLength() {
+        PresignedPutObjectRequest presignedRequest = mock(PresignedPutObjectRequest.class);
+        when(presigner.presignPutObject(any(PutObjectPresignRequest.class))).thenReturn(presignedRequest);
+
+        PresignedPutObjectRequest actual = service.generatePresignedUpload("avatar.png", "image/png", 1024);
+
+        assertSame(presignedRequest, actual);
+        verify(presigner).presignPutObject(argThat((PutObjectPresignRequest req) ->
+                req.putObjectRequest().bucket().equals("test-bucket") &&
+                req.putObjectRequest().contentType().equals("image/png") &&
+                req.putObjectRequest().contentLength() == 1024 &&
+                req.signatureDuration().toMinutes() == 10
         ));
     }
 }
@@ -0,0 +1,66 @@
+package org.example.mediaservice.service;
+
+import org.example.mediaservice.service.impl.S3UploadServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class S3UploadServiceImplTests {
+    private S3AsyncClient s3AsyncClient;
+    private ExecutorService executor;
+    private S3UploadServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        s3AsyncClient = mock(S3AsyncClient.class);
+        executor = Executors.newFixedThreadPool(2);
+        service = new S3UploadServiceImpl(s3AsyncClient, executor, "test-bucket");
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void givenFile_whenUpload_thenStreamsPutWithKnownLength() {
+        when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+                .thenReturn(CompletableFuture.completedFuture(PutObjectResponse.builder().build()));
+
+        service.upload("key", "image/png", 5, new ByteArrayInputStream(new byte[5])).join();
+
+        ArgumentCaptor<PutObjectRequest> request = ArgumentCaptor.forClass(PutObjectRequest.class);
+        ArgumentCaptor<AsyncRequestBody> body = ArgumentCaptor.forClass(AsyncRequestBody.class);
+        verify(s3AsyncClient).putObject(request.capture(), body.capture());
+        assertEquals("test-bucket", request.getValue().bucket());
+        assertEquals("image/png", request.getValue().contentType());
+        assertEquals(5L, request.getValue().contentLength());
+        assertEquals(5L, body.getValue().contentLength().orElseThrow());
+    }
+
+    @Test
+    void givenS3Failure_whenUpload_thenFutureFailsWithCause() {
+        when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+                .thenReturn(CompletableFuture.failedFuture(S3Exception.builder().statusCode(500).message("internal error").build()));
+
+        CompletableFuture<Void> upload = service.upload("key", "image/png", 5, new ByteArrayInputStream(new byte[5]));
+
+        CompletionException ex = assertThrows(CompletionException.class, upload::join);
+        assertInstanceOf(S3Exception.class, ex.getCause());
+    }
+}
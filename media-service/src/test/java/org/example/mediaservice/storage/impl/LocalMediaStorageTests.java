@@ -0,0 +1,133 @@
+package org.example.mediaservice.storage.impl;
+
+import org.example.mediaservice.dto.error.ErrorCode;
+import org.example.mediaservice.exception.BusinessException;
+import org.example.mediaservice.storage.PresignedUpload;
+import org.example.mediaservice.storage.StoredObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalMediaStorageTests {
+    @TempDir
+    private Path root;
+
+    private LocalMediaStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        storage = new LocalMediaStorage(root.toString(), "http://localhost:4003", "test-key", 60_000, 60_000);
+    }
+
+    @Test
+    void givenContent_whenUpload_thenStoresFileUnderKey() throws Exception {
+        byte[] content = "avatar".getBytes(StandardCharsets.UTF_8);
+
+        storage.upload("avatar.png", "image/png", content.length, new ByteArrayInputStream(content)).join();
+
+        assertArrayEquals(content, Files.readAllBytes(root.resolve("avatar.png")));
+        assertEquals(Optional.of(new StoredObject(content.length, null)), storage.find("avatar.png"));
+        try (var files = Files.list(root)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void givenShortContent_whenUpload_thenFailsWithoutLeavingFiles() throws Exception {
+        byte[] content = "avatar".getBytes(StandardCharsets.UTF_8);
+
+        assertTrue(storage.upload("avatar.png", "image/png", 100, new ByteArrayInputStream(content))
+                .isCompletedExceptionally());
+        try (var files = Files.list(root)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void givenStoredFiles_whenDeleteBatch_thenReturnsDeletedKeys() throws Exception {
+        Files.writeString(root.resolve("key1"), "a");
+        Files.writeString(root.resolve("key2"), "b");
+
+        List<String> deleted = storage.delete(List.of("key1", "key2", "../outside")).join();
+
+        assertEquals(List.of("key1", "key2"), deleted);
+        assertTrue(storage.find("key1").isEmpty());
+        assertTrue(storage.find("key2").isEmpty());
+    }
+
+    @Test
+    void givenKeyOutsideRoot_whenFind_thenThrowsNotFound() {
+        BusinessException ex = assertThrows(BusinessException.class, () -> storage.find("../etc/passwd"));
+
+        assertEquals(ErrorCode.RESOURCE_NOT_FOUND, ex.getErrorCode());
+    }
+
+    @Test
+    void givenDownloadUrl_whenVerifyDownload_thenReturnsFile() throws Exception {
+        Files.writeString(root.resolve("avatar.png"), "avatar");
+        UriComponents url = parse(storage.getDownloadUrl("avatar.png"));
+
+        Path file = storage.verifyDownload("avatar.png", expires(url), url.getQueryParams().getFirst("signature"));
+
+        assertEquals(root.resolve("avatar.png"), file);
+    }
+
+    @Test
+    void givenSignatureForOtherKey_whenVerifyDownload_thenThrowsInvalidSignature() throws Exception {
+        Files.writeString(root.resolve("avatar.png"), "avatar");
+        Files.writeString(root.resolve("other.png"), "other");
+        UriComponents url = parse(storage.getDownloadUrl("avatar.png"));
+
+        BusinessException ex = assertThrows(BusinessException.class, () ->
+                storage.verifyDownload("other.png", expires(url), url.getQueryParams().getFirst("signature")));
+
+        assertEquals(ErrorCode.INVALID_SIGNATURE, ex.getErrorCode());
+    }
+
+    @Test
+    void givenExpiredUrl_whenVerifyDownload_thenThrowsInvalidSignature() throws Exception {
+        storage = new LocalMediaStorage(root.toString(), "http://localhost:4003", "test-key", -5_000, 60_000);
+        Files.writeString(root.resolve("avatar.png"), "avatar");
+        UriComponents url = parse(storage.getDownloadUrl("avatar.png"));
+
+        BusinessException ex = assertThrows(BusinessException.class, () ->
+                storage.verifyDownload("avatar.png", expires(url), url.getQueryParams().getFirst("signature")));
+
+        assertEquals(ErrorCode.INVALID_SIGNATURE, ex.getErrorCode());
+    }
+
+    @Test
+    void givenUploadUrl_whenVerifyUploadWithOtherSizeOrContentType_thenThrowsInvalidSignature() {
+        PresignedUpload upload = storage.createUploadUrl("avatar.png", "image/png", 512);
+        UriComponents url = parse(upload.url());
+        String signature = url.getQueryParams().getFirst("signature");
+
+        assertEquals("image/png", upload.headers().get("Content-Type"));
+        assertTrue(upload.expiresAt().isAfter(Instant.now()));
+        assertDoesNotThrow(() -> storage.verifyUpload("avatar.png", "image/png", 512, expires(url), signature));
+        assertThrows(BusinessException.class, () ->
+                storage.verifyUpload("avatar.png", "image/png", 4096, expires(url), signature));
+        assertThrows(BusinessException.class, () ->
+                storage.verifyUpload("avatar.png", "text/html", 512, expires(url), signature));
+    }
+
+    private static UriComponents parse(String url) {
+        return UriComponentsBuilder.fromUriString(url).build();
+    }
+
+    private static long expires(UriComponents url) {
+        return Long.parseLong(url.getQueryParams().getFirst("expires"));
+    }
+}
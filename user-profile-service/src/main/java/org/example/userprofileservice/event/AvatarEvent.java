@@ -1,7 +0,0 @@
-package org.example.userprofileservice.event;
-
-public record AvatarEvent(
-        String action,
-        String key
-) {
-}
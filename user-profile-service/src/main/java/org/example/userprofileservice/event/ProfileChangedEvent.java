@@ -0,0 +1,6 @@
+package org.example.userprofileservice.event;
+
+public record ProfileChangedEvent(
+        String userId
+) {
+}
@@ -0,0 +1,10 @@
+package org.example.userprofileservice.event;
+
+public record UserRegisteredEvent(
+        String userId,
+        String username,
+        String phoneNumber,
+        String dateOfBirth,
+        long genderId
+) {
+}
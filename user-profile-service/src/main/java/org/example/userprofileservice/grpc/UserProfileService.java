@@ -1,5 +1,6 @@
 package org.example.userprofileservice.grpc;
 
+import avatar.event.AvatarAction;
 import io.grpc.stub.StreamObserver;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
@@ -14,8 +15,6 @@ import org.example.userprofileservice.mapper.UserProfileMapper;
 import org.example.userprofileservice.model.Gender;
 import org.example.userprofileservice.model.Profile;
 import org.example.userprofileservice.repository.UserProfileRepository;
-import org.springframework.transaction.support.TransactionSynchronizationAdapter;
-import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.validation.BeanPropertyBindingResult;
 import user.profile.*;
 
@@ -32,8 +31,7 @@ public class UserProfileService extends UserProfileServiceGrpc.UserProfileServic
                                   StreamObserver<CreateUserProfileResponse> responseObserver) {
         log.info("createUserProfile received request: {}", request);
 
-        Profile profile = userProfileRepository.findByUserId(request.getUserId())
-                .orElseGet(() -> userProfileRepository.save(UserProfileMapper.toUserProfile(request)));
+        Profile profile = createProfileIfAbsent(request);
 
         CreateUserProfileResponse response = CreateUserProfileResponse.newBuilder()
                 .setUsername(profile.getUsername())
@@ -44,6 +42,13 @@ public class UserProfileService extends UserProfileServiceGrpc.UserProfileServic
         responseObserver.onCompleted();
     }
 
+    // registration is delivered both over grpc and through the auth-service outbox, so creation must be idempotent
+    @Transactional
+    public Profile createProfileIfAbsent(CreateUserProfileRequest request) {
+        return userProfileRepository.findByUserId(request.getUserId())
+                .orElseGet(() -> userProfileRepository.save(UserProfileMapper.toUserProfile(request)));
+    }
+
     @Override
     public void checkPhoneNumber(CheckPhoneNumberRequest request,
                                  StreamObserver<CheckPhoneNumberResponse> responseObserver) {
@@ -104,9 +109,10 @@ public class UserProfileService extends UserProfileServiceGrpc.UserProfileServic
         userProfileRepository.save(profile);
 
         if (oldAvatarKey != null && !oldAvatarKey.equals(request.avatarKey())) {
-            userProfileProducer.sendAvatarEvent("DELETED", oldAvatarKey);
+            userProfileProducer.sendAvatarEvent(AvatarAction.AVATAR_ACTION_DELETED, oldAvatarKey);
         }
 
-        userProfileProducer.sendAvatarEvent("APPROVED", request.avatarKey());
+        userProfileProducer.sendAvatarEvent(AvatarAction.AVATAR_ACTION_APPROVED, request.avatarKey());
+        userProfileProducer.sendProfileChangedEvent(userId);
     }
 }
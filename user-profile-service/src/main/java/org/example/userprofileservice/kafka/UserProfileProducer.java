@@ -1,28 +1,41 @@
 package org.example.userprofileservice.kafka;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import avatar.event.AvatarAction;
+import avatar.event.AvatarEventEnvelope;
+import avatar.event.AvatarEventMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.example.userprofileservice.event.AvatarEvent;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.example.userprofileservice.event.ProfileChangedEvent;
+import org.example.userprofileservice.outbox.OutboxWriter;
 import org.springframework.stereotype.Service;
 
+import java.util.UUID;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class UserProfileProducer {
-    private final KafkaTemplate<String, byte[]> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    private final OutboxWriter outboxWriter;
     private static final String TOPIC = "user-profile-avatar-events";
+    private static final String PROFILE_CHANGED_TOPIC = "user-profile-changed-events";
+    private static final int AVATAR_EVENT_SCHEMA_VERSION = 1;
+
+    public void sendAvatarEvent(AvatarAction action, String key) {
+        log.info("Queueing avatar event: action={}, key={}", action, key);
+        // the version lets consumers drop events that arrive after a newer change to the same key
+        AvatarEventEnvelope envelope = AvatarEventEnvelope.newBuilder()
+                .setSchemaVersion(AVATAR_EVENT_SCHEMA_VERSION)
+                .setEvent(AvatarEventMessage.newBuilder()
+                        .setEventId(UUID.randomUUID().toString())
+                        .setVersion(System.currentTimeMillis())
+                        .setAction(action)
+                        .setKey(key))
+                .build();
+        outboxWriter.enqueue(TOPIC, key, envelope.toByteArray());
+    }
 
-    public void sendAvatarEvent(String action, String key) {
-        log.info("Sending avatar event: action={}, key={}", action, key);
-        try {
-            AvatarEvent event = new AvatarEvent(action, key);
-            byte[] payload = objectMapper.writeValueAsBytes(event);
-            kafkaTemplate.send(TOPIC, key, payload);
-        } catch (Exception ex) {
-            log.error("Error sending avatar event: {}", ex.getMessage(), ex);
-        }
+    public void sendProfileChangedEvent(String userId) {
+        log.info("Queueing profile changed event: userId={}", userId);
+        outboxWriter.enqueue(PROFILE_CHANGED_TOPIC, userId, new ProfileChangedEvent(userId));
     }
 }
@@ -0,0 +1,33 @@
+package org.example.userprofileservice.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.userprofileservice.event.UserRegisteredEvent;
+import org.example.userprofileservice.grpc.UserProfileService;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+import user.profile.CreateUserProfileRequest;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserRegisteredConsumer {
+    private final UserProfileService userProfileService;
+    private final ObjectMapper objectMapper;
+
+    @KafkaListener(topics = "user-registered-events", groupId = "user-profile-service")
+    public void consumeUserRegisteredEvent(byte[] payload) throws Exception {
+        UserRegisteredEvent event = objectMapper.readValue(payload, UserRegisteredEvent.class);
+        log.info("Received user registered event: userId={}", event.userId());
+
+        userProfileService.createProfileIfAbsent(CreateUserProfileRequest.newBuilder()
+                .setUserId(event.userId())
+                .setUsername(event.username())
+                .setPhoneNumber(event.phoneNumber())
+                .setDateOfBirth(event.dateOfBirth())
+                .setGenderId(event.genderId())
+                .setAvatarKey("")
+                .build());
+    }
+}
@@ -0,0 +1,119 @@
+package org.example.userprofileservice.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.example.userprofileservice.model.OutboxEvent;
+import org.example.userprofileservice.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Component
+public class OutboxRelay {
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final TransactionOperations transactionOperations;
+    private final int batchSize;
+    private final long sendTimeout;
+    private final MeterRegistry meterRegistry;
+    private final Counter relayed;
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       KafkaTemplate<String, byte[]> kafkaTemplate,
+                       TransactionOperations transactionOperations,
+                       MeterRegistry meterRegistry,
+                       @Value("${app.outbox.batch-size}") int batchSize,
+                       @Value("${app.outbox.send-timeout}") long sendTimeout) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionOperations = transactionOperations;
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+        this.meterRegistry = meterRegistry;
+
+        this.relayed = Counter.builder("outbox.events.relayed").register(meterRegistry);
+        Gauge.builder("outbox.lag", lagMillis, AtomicLong::get)
+                .baseUnit("milliseconds")
+                .description("Age of the oldest event waiting in the outbox")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval}")
+    public void relay() {
+        try {
+            // keep draining while batches come back full instead of waiting for the next poll
+            while (relayBatch() == batchSize) {
+                log.debug("Outbox batch was full, relaying the next one");
+            }
+        } catch (Exception e) {
+            log.warn("Failed to relay outbox events, will retry: {}", e.getMessage());
+        } finally {
+            updateLag();
+        }
+    }
+
+    int relayBatch() {
+        Integer sent = transactionOperations.execute(status -> {
+            List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(batchSize);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+
+            CompletableFuture<?>[] sends = batch.stream()
+                    .map(this::send)
+                    .toArray(CompletableFuture[]::new);
+            awaitAcks(sends);
+
+            outboxEventRepository.deleteAllInBatch(batch);
+            return batch.size();
+        });
+
+        int count = sent == null ? 0 : sent;
+        relayed.increment(count);
+        return count;
+    }
+
+    private CompletableFuture<?> send(OutboxEvent event) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return kafkaTemplate.send(event.getTopic(), event.getAggregateId(), event.getPayload())
+                .whenComplete((result, ex) -> {
+                    sample.stop(meterRegistry.timer("outbox.relay.send",
+                            "topic", event.getTopic(), "result", ex == null ? "success" : "failure"));
+                    if (ex != null) {
+                        log.warn("Failed to send outbox event {} to {}: {}", event.getId(), event.getTopic(), ex.getMessage());
+                    }
+                });
+    }
+
+    // rows stay locked until kafka acknowledges the whole batch, a failure rolls back and the batch is retried
+    private void awaitAcks(CompletableFuture<?>[] sends) {
+        try {
+            CompletableFuture.allOf(sends).get(sendTimeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while relaying outbox events", e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Kafka did not acknowledge outbox batch", e);
+        }
+    }
+
+    private void updateLag() {
+        lagMillis.set(outboxEventRepository.findOldestCreatedAt()
+                .map(oldest -> Duration.between(oldest, Instant.now()).toMillis())
+                .orElse(0L));
+    }
+}
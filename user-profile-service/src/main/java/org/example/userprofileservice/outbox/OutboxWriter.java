@@ -0,0 +1,38 @@
+package org.example.userprofileservice.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.example.userprofileservice.model.OutboxEvent;
+import org.example.userprofileservice.repository.OutboxEventRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    // must join the caller's transaction so the event is stored atomically with the state change
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void enqueue(String topic, String aggregateId, Object event) {
+        try {
+            enqueue(topic, aggregateId, objectMapper.writeValueAsBytes(event));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize outbox event for " + aggregateId, e);
+        }
+    }
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void enqueue(String topic, String aggregateId, byte[] payload) {
+        outboxEventRepository.save(OutboxEvent.builder()
+                .topic(topic)
+                .aggregateId(aggregateId)
+                .payload(payload)
+                .createdAt(Instant.now())
+                .build());
+    }
+}
@@ -0,0 +1,96 @@
+package org.example.userprofileservice.benchmark;
+
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares relay throughput of the default producer settings with the tuned profile from application.yaml
+ * (linger, larger batches, compression and idempotence) against an embedded broker.
+ * One operation sends a burst of profile updates, each emitting the two small avatar records, and waits for all acks.
+ * <p>
+ * Run with: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.example.userprofileservice.benchmark.KafkaProducerThroughputBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class KafkaProducerThroughputBenchmark {
+    private static final String TOPIC = "user-profile-avatar-events";
+    private static final int UPDATES_PER_BURST = 500;
+
+    @Param({"default", "tuned-lz4", "tuned-zstd"})
+    public String profile;
+
+    private EmbeddedKafkaKraftBroker broker;
+    private KafkaProducer<String, byte[]> producer;
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        broker = new EmbeddedKafkaKraftBroker(1, 3, TOPIC);
+        broker.afterPropertiesSet();
+
+        producer = new KafkaProducer<>(producerProps(), new StringSerializer(), new ByteArraySerializer());
+        // roughly the size of an encoded avatar event envelope
+        payload = (UUID.randomUUID() + UUID.randomUUID().toString() + "-avatar.png").getBytes();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        producer.close();
+        broker.destroy();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(UPDATES_PER_BURST * 2)
+    public void relayBurst() throws Exception {
+        Future<?>[] acks = new Future<?>[UPDATES_PER_BURST * 2];
+        for (int i = 0; i < UPDATES_PER_BURST; i++) {
+            acks[2 * i] = producer.send(new ProducerRecord<>(TOPIC, "old-avatar-" + i, payload));
+            acks[2 * i + 1] = producer.send(new ProducerRecord<>(TOPIC, "new-avatar-" + i, payload));
+        }
+        for (Future<?> ack : acks) {
+            ack.get();
+        }
+    }
+
+    private Map<String, Object> producerProps() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+
+        if (profile.startsWith("tuned")) {
+            props.put(ProducerConfig.LINGER_MS_CONFIG, 10);
+            props.put(ProducerConfig.BATCH_SIZE_CONFIG, 64 * 1024);
+            props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+            props.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+            props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, profile.endsWith("zstd") ? "zstd" : "lz4");
+        }
+        return props;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(KafkaProducerThroughputBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
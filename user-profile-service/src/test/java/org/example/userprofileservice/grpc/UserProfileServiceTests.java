@@ -1,5 +1,6 @@
 package org.example.userprofileservice.grpc;
 
+import avatar.event.AvatarAction;
 import io.grpc.stub.StreamObserver;
 import jakarta.persistence.EntityNotFoundException;
 import org.example.userprofileservice.dto.profile.ProfileRequest;
@@ -55,6 +56,38 @@ class UserProfileServiceTests {
         verify(observer).onCompleted();
     }
 
+    @Test
+    void givenNewUser_whenCreateProfileIfAbsent_thenSavesProfile() {
+        String userId = "user123";
+        when(repository.findByUserId(userId)).thenReturn(Optional.empty());
+        when(repository.save(any(Profile.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        CreateUserProfileRequest request = CreateUserProfileRequest.newBuilder()
+                .setUserId(userId)
+                .setUsername("John")
+                .setDateOfBirth("2000-10-10")
+                .setGenderId(1L)
+                .build();
+
+        Profile profile = service.createProfileIfAbsent(request);
+
+        assertEquals("John", profile.getUsername());
+        verify(repository).save(any(Profile.class));
+    }
+
+    @Test
+    void givenExistingProfile_whenCreateProfileIfAbsent_thenDoesNotSaveAgain() {
+        String userId = "user123";
+        Profile existing = new Profile();
+        existing.setUserId(userId);
+        when(repository.findByUserId(userId)).thenReturn(Optional.of(existing));
+
+        Profile profile = service.createProfileIfAbsent(CreateUserProfileRequest.newBuilder().setUserId(userId).build());
+
+        assertSame(existing, profile);
+        verify(repository, never()).save(any());
+    }
+
     @Test
     void givenPhoneNumberExists_whenCheckPhoneNumber_thenReturnsFalse() {
         String phone = "+380501234567";
@@ -134,8 +167,9 @@ class UserProfileServiceTests {
         assertEquals("+380501234568", profile.getPhoneNumber());
         assertEquals("newAvatar", profile.getAvatarKey());
 
-        verify(producer).sendAvatarEvent("APPROVED", "newAvatar");
-        verify(producer).sendAvatarEvent("DELETED", "oldAvatar");
+        verify(producer).sendAvatarEvent(AvatarAction.AVATAR_ACTION_APPROVED, "newAvatar");
+        verify(producer).sendAvatarEvent(AvatarAction.AVATAR_ACTION_DELETED, "oldAvatar");
+        verify(producer).sendProfileChangedEvent(userId);
         verify(repository).save(profile);
     }
 
@@ -156,5 +190,6 @@ class UserProfileServiceTests {
                 () -> service.updateUserProfile(userId, request));
 
         assertNotNull(ex.getMessage());
+        verify(producer, never()).sendProfileChangedEvent(any());
     }
 }
@@ -0,0 +1,89 @@
+package org.example.userprofileservice.outbox;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.userprofileservice.model.OutboxEvent;
+import org.example.userprofileservice.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OutboxRelayTests {
+    private OutboxEventRepository repository;
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        repository = mock(OutboxEventRepository.class);
+        kafkaTemplate = mock(KafkaTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new OutboxRelay(repository, kafkaTemplate, TransactionOperations.withoutTransaction(),
+                meterRegistry, 2, 1000);
+
+        when(repository.findOldestCreatedAt()).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void givenPendingEvents_whenRelay_thenPublishesAndDeletesThem() {
+        OutboxEvent first = event("avatar-1");
+        OutboxEvent second = event("avatar-2");
+        when(repository.lockNextBatch(2)).thenReturn(List.of(first, second), List.of());
+        when(kafkaTemplate.send(anyString(), anyString(), any(byte[].class)))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        relay.relay();
+
+        verify(kafkaTemplate).send("user-profile-avatar-events", "avatar-1", first.getPayload());
+        verify(kafkaTemplate).send("user-profile-avatar-events", "avatar-2", second.getPayload());
+        verify(repository).deleteAllInBatch(List.of(first, second));
+        assertEquals(2.0, meterRegistry.get("outbox.events.relayed").counter().count());
+        assertEquals(2, meterRegistry.get("outbox.relay.send").tag("result", "success").timer().count());
+    }
+
+    @Test
+    void givenKafkaFailure_whenRelay_thenKeepsEventsForRetry() {
+        OutboxEvent event = event("avatar-1");
+        when(repository.lockNextBatch(2)).thenReturn(List.of(event));
+        when(kafkaTemplate.send(anyString(), anyString(), any(byte[].class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        relay.relay();
+
+        verify(repository, never()).deleteAllInBatch(any());
+        assertEquals(0.0, meterRegistry.get("outbox.events.relayed").counter().count());
+        assertEquals(1, meterRegistry.get("outbox.relay.send").tag("result", "failure").timer().count());
+    }
+
+    @Test
+    void givenOldPendingEvent_whenRelay_thenReportsLag() {
+        when(repository.lockNextBatch(2)).thenReturn(List.of());
+        when(repository.findOldestCreatedAt()).thenReturn(Optional.of(Instant.now().minusSeconds(5)));
+
+        relay.relay();
+
+        assertTrue(meterRegistry.get("outbox.lag").gauge().value() >= 5000);
+    }
+
+    private static OutboxEvent event(String key) {
+        return OutboxEvent.builder()
+                .id(UUID.randomUUID())
+                .topic("user-profile-avatar-events")
+                .aggregateId(key)
+                .payload(key.getBytes())
+                .createdAt(Instant.now())
+                .build();
+    }
+}